@@ -0,0 +1,125 @@
+package benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import gameobject.Missile;
+import gameobject.ParticleStore;
+import random.Randomiser;
+import rect.Rect;
+import scene.CityManager;
+import scene.CollisionEvents;
+import scene.ForceManager;
+import scene.ParticleManager;
+import texture.TextureManager;
+
+/// Measures collision checks between particles and projectiles or cities.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollisionBenchmark {
+
+    /// Number of particles to check against.
+    @Param({"100", "1000", "10000", "100000"})
+    public int particles;
+
+    /// Number of projectiles to check.
+    @Param({"1", "10", "100"})
+    public int projectiles;
+
+    /// Structure for finding particles, a grid or a sweep over particles sorted on x.
+    @Param({"grid", "sweep"})
+    public String broadphase;
+
+    private ParticleManager mParticles;
+    private Missile[] mMissiles;
+    private CityManager mCities;
+    private CollisionEvents mEvents;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        Random random = new Random(0);
+        TextureManager tManager = Fixtures.textures();
+        ForceManager fManager = new ForceManager();
+
+        // Keep particles above the cities so that no city is destroyed between
+        // invocations, matching most steps of a wave.
+        mParticles = Fixtures.particles(tManager);
+        mParticles.setSweep(broadphase.equals("sweep"));
+        Fixtures.fill(mParticles.getParticles(), particles, new Rect(0f, -200f, 1000f, 700f), random);
+
+        // Update without time passing to build the broadphase.
+        mParticles.update(0f, fManager);
+
+        mMissiles = new Missile[projectiles];
+        for (int i = 0; i < projectiles; ++i) {
+
+            mMissiles[i] = Fixtures.missile(tManager, fManager);
+            mMissiles[i].setTranslation(random.nextFloat() * 1000f, random.nextFloat() * 500f);
+
+        }
+
+        mCities = new CityManager(tManager.getTexture("city"), 0.5f, new Randomiser(0));
+        mEvents = new CollisionEvents(256);
+
+    }
+
+    /// Check every projectile against every particle directly.
+    @Benchmark
+    public int collidesAll() {
+
+        ParticleStore store = mParticles.getParticles();
+        int hits = 0;
+        for (Missile missile : mMissiles) {
+
+            for (int i = 0; i < store.size(); ++i) {
+
+                if (store.isFlying(i) && store.collides(i, missile)) {
+
+                    ++hits;
+
+                }
+
+            }
+
+        }
+        return hits;
+
+    }
+
+    /// Check every projectile against nearby particles found with the broadphase.
+    @Benchmark
+    public int collidesQuery() {
+
+        int hits = 0;
+        for (Missile missile : mMissiles) {
+
+            hits += mParticles.query(missile.getXTranslation(), 
+                                     missile.getYTranslation(), 
+                                     missile.getRadius());
+
+        }
+        return hits;
+
+    }
+
+    /// Check every city for collision with particles.
+    @Benchmark
+    public CollisionEvents cityCollisions() {
+
+        mEvents.begin();
+        mCities.findCollisions(mParticles, mEvents);
+        return mEvents;
+
+    }
+
+}
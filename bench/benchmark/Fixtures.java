@@ -0,0 +1,135 @@
+package benchmark;
+
+import java.util.Random;
+import java.util.function.Consumer;
+import force.BasicGravity;
+import force.Drag;
+import force.Explosion;
+import force.HoleGravity;
+import gameobject.BlackHole;
+import gameobject.Missile;
+import gameobject.ParticleStore;
+import rect.Rect;
+import scene.ForceManager;
+import scene.ParticleManager;
+import texture.Texture;
+import texture.TextureManifest;
+import texture.TextureManager;
+
+/// Builds the game objects used by benchmarks with the same properties as the scene,
+/// using textures without images and a fixed seed so that every run is the same.
+public class Fixtures {
+
+    /// Bounds particles must stay within.
+    public static final Rect BOUNDS = new Rect(0f, -300f, 1000f, 1075f);
+
+    /// Create every texture used by the game without loading images.
+    /// \return manager holding the textures.
+    public static TextureManager textures() {
+
+        TextureManager tManager = new TextureManager();
+        try {
+
+            TextureManifest manifest = TextureManifest.read("data/textures.txt");
+            tManager.load(manifest, (path, width, height) -> new Texture(width, height));
+
+        } catch (Exception e) {
+
+            throw new RuntimeException(e);
+
+        }
+        return tManager;
+
+    }
+
+    /// Create a particle manager that never spawns particles by itself.
+    /// \param tManager source of textures to use.
+    /// \return the particle manager.
+    public static ParticleManager particles(TextureManager tManager) {
+
+        ParticleStore store = new ParticleStore(tManager.getTexture("particle"), 0.3f, 256);
+        Consumer<ParticleStore> spawner = (particles) -> {};
+        return new ParticleManager(store, spawner, 0, 1f, 1f, 1f, BOUNDS, 100f);
+
+    }
+
+    /// Fill a store with flying particles at random points in an area.
+    /// \param particles the store to fill.
+    /// \param count the number of particles to add.
+    /// \param area the area to place particles in.
+    /// \param random source of random numbers.
+    public static void fill(ParticleStore particles, int count, Rect area, Random random) {
+
+        particles.clear();
+        for (int i = 0; i < count; ++i) {
+
+            float size = random.nextFloat();
+            particles.add(area.x + random.nextFloat() * area.width,
+                          area.y + random.nextFloat() * area.height,
+                          random.nextFloat() * 200f - 100f,
+                          random.nextFloat() * 300f,
+                          10f + size * 10f,
+                          0.7f + size * 0.4f);
+
+        }
+
+    }
+
+    /// Create a force manager with gravity and drag plus explosions and black holes 
+    /// at random points.
+    /// \param tManager source of textures to use.
+    /// \param count the total number of forces, at least the two global forces.
+    /// \param random source of random numbers.
+    /// \return the force manager.
+    public static ForceManager forces(TextureManager tManager, int count, Random random) {
+
+        ForceManager fManager = new ForceManager();
+        fManager.addForce(new BasicGravity(3f));
+        fManager.addForce(new Drag(0.001f, 0.0006f));
+
+        // Alternate between missile explosions and black holes.
+        for (int i = 2; i < count; ++i) {
+
+            float x = BOUNDS.x + random.nextFloat() * BOUNDS.width;
+            float y = random.nextFloat() * 700f;
+            if (i % 2 == 0) {
+
+                Missile missile = missile(tManager, fManager);
+                missile.setTranslation(x, y);
+                fManager.addForce(new Explosion(missile, 1500f));
+
+            } else {
+
+                BlackHole hole = blackHole(tManager, fManager);
+                hole.setTranslation(x, y);
+                fManager.addForce(new HoleGravity(hole, 100f));
+
+            }
+
+        }
+        fManager.update();
+        return fManager;
+
+    }
+
+    /// Create a missile.
+    /// \param tManager source of textures to use.
+    /// \param fManager force manager for the missile's explosion.
+    /// \return the missile.
+    public static Missile missile(TextureManager tManager, ForceManager fManager) {
+
+        return new Missile(tManager.getTexture("missile"), fManager, 1000f, 0.5f, 1500f);
+
+    }
+
+    /// Create a black hole.
+    /// \param tManager source of textures to use.
+    /// \param fManager force manager for the black hole's gravity.
+    /// \return the black hole.
+    public static BlackHole blackHole(TextureManager tManager, ForceManager fManager) {
+
+        return new BlackHole(tManager.getTexture("hole"), fManager, 1000f, 1f, 120f, 50000f, 100f);
+
+    }
+
+}
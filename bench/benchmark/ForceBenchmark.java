@@ -0,0 +1,74 @@
+package benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import gameobject.ParticleStore;
+import scene.ForceManager;
+import scene.ParticleGrid;
+import texture.TextureManager;
+
+/// Measures applying every active force to every particle without integrating.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ForceBenchmark {
+
+    /// Number of particles to apply forces to.
+    @Param({"100", "1000", "10000", "100000"})
+    public int particles;
+
+    /// Number of forces active, including gravity and drag.
+    @Param({"2", "10", "50"})
+    public int forces;
+
+    /// Opening angle of the black hole field, negative to apply each hole exactly.
+    @Param({"-1", "0.5", "1"})
+    public float holeTheta;
+
+    private ForceManager mForces;
+    private ParticleStore mParticles;
+    private ParticleGrid mGrid;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        Random random = new Random(0);
+        TextureManager tManager = Fixtures.textures();
+        mForces = Fixtures.forces(tManager, forces, random);
+        if (holeTheta >= 0f) {
+
+            mForces.setHoleField(holeTheta, 1);
+            mForces.update();
+
+        }
+        mParticles = Fixtures.particles(tManager).getParticles();
+        Fixtures.fill(mParticles, particles, Fixtures.BOUNDS, random);
+        mGrid = new ParticleGrid(Fixtures.BOUNDS, 100f);
+        mGrid.rebuild(mParticles);
+
+    }
+
+    /// Apply forces to every particle once.
+    @Benchmark
+    public ParticleStore applyForce() {
+
+        mForces.applyLocalForces(mParticles, mGrid);
+        for (int i = 0; i < mParticles.size(); ++i) {
+
+            mForces.applyForce(mParticles, i);
+
+        }
+        return mParticles;
+
+    }
+
+}
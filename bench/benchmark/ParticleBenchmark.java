@@ -0,0 +1,84 @@
+package benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import scene.ForceManager;
+import scene.ParticleManager;
+import texture.TextureManager;
+
+/// Measures updating particles with forces, including the broadphase rebuild.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParticleBenchmark {
+
+    /// Steps simulated per invocation, short enough that most particles stay in bounds.
+    private static final int STEPS = 10;
+
+    /// Number of particles to update.
+    @Param({"100", "1000", "10000", "100000"})
+    public int particles;
+
+    /// Number of forces active, including gravity and drag.
+    @Param({"2", "10", "50"})
+    public int forces;
+
+    /// Threads to update particles with, 1 updates on the benchmark thread.
+    @Param({"1"})
+    public int threads;
+
+    /// Structure rebuilt after each step, a grid or a sweep over particles sorted on x.
+    @Param({"grid", "sweep"})
+    public String broadphase;
+
+    private TextureManager mTextures;
+    private ForceManager mForces;
+    private ParticleManager mParticles;
+    private Random mRandom;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+
+        mRandom = new Random(0);
+        mTextures = Fixtures.textures();
+        mForces = Fixtures.forces(mTextures, forces, mRandom);
+        mParticles = Fixtures.particles(mTextures);
+        mParticles.setParallel(threads, 4096);
+        mParticles.setSweep(broadphase.equals("sweep"));
+
+    }
+
+    /// Refill particles before each invocation since they leave the bounds over time.
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+
+        Fixtures.fill(mParticles.getParticles(), particles, Fixtures.BOUNDS, mRandom);
+        mParticles.rebuildBroadphase();
+
+    }
+
+    /// Update all particles for several steps, reported per step.
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public int update() {
+
+        for (int i = 0; i < STEPS; ++i) {
+
+            mParticles.update(0.01f, mForces);
+
+        }
+        return mParticles.getParticles().size();
+
+    }
+
+}
@@ -0,0 +1,39 @@
+import java.io.File;
+import processing.core.PApplet;
+import texture.Texture;
+import texture.TextureManager;
+import texture.TextureManifest;
+import texture.TexturePack;
+
+/// Decodes every texture listed in a manifest and writes them with their clips to a
+/// texture pack, so that the game can load them without decoding any images.
+public class Bake {
+
+    /// Bake a manifest into a texture pack.
+    /// \param args path of the manifest, then path of the pack to write. Image paths
+    ///             in the manifest are relative to the manifest's folder.
+    public static void main(String[] args) throws Exception {
+
+        if (args.length != 2) {
+
+            System.err.println("Usage: Bake <manifest> <pack>");
+            System.exit(1);
+
+        }
+
+        // Decode images from the manifest's folder. Processing only loads files once
+        // a sketch path is set.
+        File folder = new File(args[0]).getAbsoluteFile().getParentFile();
+        PApplet core = new PApplet();
+        core.sketchPath(folder.getPath());
+        TextureManifest manifest = TextureManifest.read(args[0]);
+        TextureManager tManager = new TextureManager();
+        tManager.load(manifest, (path, width, height) ->
+                      new Texture(core, new File(folder, path).getPath()));
+
+        TexturePack.write(args[1], manifest, tManager);
+        System.out.println("Baked " + manifest.size() + " textures into " + args[1]);
+
+    }
+
+}
@@ -3,16 +3,23 @@ import processing.core.PVector;
 import java.lang.Exception;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import scene.Scene;
+import scene.Simulation;
 import texture.TextureManager;
 import texture.Texture;
-import rect.Rect;
+import texture.TextureManifest;
+import texture.TexturePack;
+import replay.InputRecording;
+import replay.InputReplay;
+import profile.Profiler;
 
 /// Class to initialise game and handle processing main loop.
 public class Game extends PApplet {
 
     /// The fixed update timestep used.
-    private final float mStepSize;
+    private float mStepSize;
 
     /// The width to use for the window in pixels.
     private final int mWindowWidth;
@@ -23,19 +30,62 @@ public class Game extends PApplet {
     /// The FPS to set the game to.
     private final int mFps;
 
-    /// Accumulated time since last frame.
-    private float mAccumulator;
+    /// Most updates carried out in a single frame.
+    private final int mMaxSteps;
+
+    /// Fraction of real time that updates may use before game time is slowed down.
+    private final float mBudget;
+
+    /// Slowest that game time can run relative to real time.
+    private final float mMinTimeScale;
+
+    /// Manifest of textures to load in the data folder.
+    private final String mManifest;
+
+    /// Largest width and height of each texture atlas.
+    private final int mAtlasSize;
+
+    /// Empty pixels left between images in texture atlases.
+    private final int mAtlasPadding;
 
     /// The time at the start of the frame.
     private float mStartTime;
 
-    /// The game scene to update and draw.
-    private Scene mScene;
+    /// Whether the simulation runs on its own thread instead of in draw().
+    private boolean mThreaded;
+
+    /// Simulation updating the game scene and providing snapshots to draw.
+    private Simulation mSimulation;
+
+    /// Recording of the session's input, null if not recording.
+    private InputRecording mRecording;
+
+    /// Path to write the recording to when the game closes.
+    private String mRecordPath;
+
+    /// Recorded input being replayed instead of handling player input, null if not
+    /// replaying.
+    private InputReplay mReplay;
+
+    /// Whether update and draw timings are being profiled.
+    private boolean mProfiling;
+
+    /// Profiler timing the scene, which draw timings are posted to.
+    private Profiler mProfiler;
 
     /// Use this class for processing main loop.
+    /// \param args command line options. --threaded runs the simulation on its own thread.
+    ///             --rate followed by a number of updates per second sets the timestep.
+    ///             --adaptive slows down game time when updates cannot keep up.
+    ///             --p2d renders with OpenGL.
+    ///             --seed followed by a number seeds random numbers.
+    ///             --record followed by a path records input to the path on exit.
+    ///             --replay followed by a path replays recorded input from the path, 
+    ///             then hands input back to the player once every input is replayed.
+    ///             --profile shows timings, pressing p writes them to profile.csv.
     public static void main(String[] args) {
 
-        PApplet.main("Game");
+        PApplet.main("Game", args);
 
     }
 
@@ -46,13 +96,26 @@ public class Game extends PApplet {
         mWindowWidth = 1000;
         mWindowHeight = 1000;
         mFps = 60;
+        mMaxSteps = 10;
+        mBudget = 0.8f;
+        mMinTimeScale = 0.25f;
+        mManifest = "textures.txt";
+        mAtlasSize = 4096;
+        mAtlasPadding = 2;
+        mThreaded = false;
+        mRecording = null;
+        mRecordPath = null;
+        mReplay = null;
+        mProfiling = false;
+        mProfiler = null;
 
     }
 
-    /// Initialise screen size settings.
+    /// Initialise screen size settings. Sprites are batched into shapes when using an 
+    /// OpenGL renderer, selected with --p2d.
     public void settings() {
 
-        size(mWindowWidth, mWindowHeight);
+        size(mWindowWidth, mWindowHeight, hasOption("--p2d") ? P2D : JAVA2D);
 
     }
 
@@ -62,51 +125,108 @@ public class Game extends PApplet {
         // Set frame rate and start time.
         frameRate(mFps);
         mStartTime = millis()/1000f;
+        mThreaded = hasOption("--threaded");
+
+        // Waves are random unless a seed is given to repeat the same waves.
+        String seedOption = getOption("--seed");
+        long seed = (seedOption != null) ? Long.parseLong(seedOption) : System.nanoTime();
 
         TextureManager tManager = new TextureManager();
 
         // Attempt to load and initialise textures, exit on failure.
         try {
 
-            // Load crosshair texture.
-            Texture crosshair = new Texture(this, "crosshair.png");
-
-            // Load particle texture and add clips for each animation frame.
-            Texture particle = new Texture(this, "particle.png");
-            particle.addClip(new Rect(10, 20, 100, 100));
-            addClips(particle, 1, 3, 120, 140);
-
-            // Load missile texture and add clips for each animation frame.
-            Texture missile = new Texture(this, "missile.png");
-            missile.addClip(new Rect(95, 105, 100, 100));
-            missile.addClip(new Rect(380, 60, 180, 180));
-            missile.addClip(new Rect(675, 40, 220, 220));
-            addClips(missile, 3, 6, 319, 324);
-
-            // Load turret texture and add clips for state.
-            Texture turret = new Texture(this, "turret.png");
-            addClips(turret, 0, 3, 1000, 300);
-
-            // Load turret texture and add clips for state.
-            Texture city = new Texture(this, "city.png");
-            addClips(city, 0, 9, 160, 150);
-
-            // Load hole texture and add clips for each animation frame.
-            Texture hole = new Texture(this, "hole.png");
-            hole.addClip(new Rect(60, 60, 100, 100));
-            hole.addClip(new Rect(240, 20, 180, 180));
-            hole.addClip(new Rect(440, 0, 220, 220));
-
-            // Add textures to texture manager.
-            tManager.addTexture("crosshair", crosshair);
-            tManager.addTexture("particle", particle);
-            tManager.addTexture("missile", missile);
-            tManager.addTexture("turret", turret);
-            tManager.addTexture("city", city);
-            tManager.addTexture("hole", hole);
-
-            // Initialise scene with textures.
-            mScene = new Scene(tManager);
+            // Rendering is interpolated so the update rate can be lowered independently
+            // of the frame rate.
+            String rate = getOption("--rate");
+            if (rate != null) {
+
+                float updates = Float.parseFloat(rate);
+                if (!(updates > 0f) || Float.isInfinite(updates)) {
+
+                    throw new IllegalArgumentException("--rate must be a positive number: " + rate);
+
+                }
+                mStepSize = 1f / updates;
+
+            }
+
+            // Load textures from a baked pack if given, which needs no decoding.
+            String packPath = getOption("--pack");
+            if (packPath != null) {
+
+                TexturePack.read(packPath, tManager);
+
+            } else {
+
+                // Otherwise decode every texture in the manifest concurrently.
+                TextureManifest manifest = TextureManifest.read(dataPath(mManifest));
+                int threads = Math.min(Runtime.getRuntime().availableProcessors(), manifest.size());
+                ExecutorService loaders = Executors.newFixedThreadPool(Math.max(threads, 1));
+                try {
+
+                    tManager.loadAsync(manifest, (path, width, height) -> new Texture(this, path), loaders);
+                    tManager.awaitAll();
+
+                } finally {
+
+                    loaders.shutdown();
+
+                }
+
+            }
+
+            // Pack textures into atlases so sprites can be batched across textures.
+            tManager.packAtlases(mAtlasSize, mAtlasPadding);
+
+            // Replaying a recording uses its seed and timestep so that the same waves
+            // are played and inputs happen before the same steps.
+            String replayPath = getOption("--replay");
+            if (replayPath != null) {
+
+                InputRecording replay = InputRecording.read(replayPath);
+                seed = replay.getSeed();
+                mStepSize = replay.getStepSize();
+                mReplay = new InputReplay(replay);
+
+            }
+
+            // Initialise scene with textures and record its input if asked.
+            Scene scene = new Scene(tManager, seed);
+            mRecordPath = getOption("--record");
+            if (mRecordPath != null) {
+
+                mRecording = new InputRecording(seed, mStepSize);
+                scene.setRecording(mRecording);
+
+            }
+
+            // Time sections of updates and drawing if asked.
+            mProfiling = hasOption("--profile");
+            mProfiler = scene.getProfiler();
+            mProfiler.setEnabled(mProfiling);
+
+            // Start the crosshair at the mouse, which then follows mouse move events.
+            scene.handleMouseMove(new PVector(mouseX, mouseY));
+
+            // Simulate the scene with the fixed timestep.
+            mSimulation = new Simulation(scene, mStepSize);
+            if (mReplay != null) {
+
+                mSimulation.setReplay(mReplay);
+
+            }
+            mSimulation.setMaxSteps(mMaxSteps);
+            if (hasOption("--adaptive")) {
+
+                mSimulation.setAdaptive(mBudget, mMinTimeScale);
+
+            }
+            if (mThreaded) {
+
+                mSimulation.start();
+
+            }
 
         } catch (Exception e) {
 
@@ -125,64 +245,178 @@ public class Game extends PApplet {
         float frameTime = currentTime - mStartTime;
 
         mStartTime = currentTime;
-        mAccumulator += frameTime;
 
-        // While there is still enough time left in accumulator update the
-        // game with the fixed timestep.
-        while (mAccumulator > mStepSize) {
+        // Update the game with the fixed timestep unless the simulation has its own thread.
+        if (!mThreaded) {
 
-            mScene.update(mStepSize); 
-            mAccumulator -= mStepSize;
+            mSimulation.advance(frameTime);
 
         }
 
-        // Clear screen then render current game state.
+        // Clear screen then render latest snapshot of game state.
+        long start = System.nanoTime();
         background(255);
-        mScene.render(this);
+        mSimulation.getSnapshot().draw(this);
+
+        // Post the sample so that the profiler records it on the simulation thread,
+        // without queuing input that would make the simulation publish a snapshot.
+        if (mProfiling) {
+
+            mProfiler.post(Profiler.DRAW, System.nanoTime() - start);
+
+        }
+
+    }
+
+    /// Stop the simulation thread and write any recording when the sketch closes.
+    public void dispose() {
+
+        if (mSimulation != null) {
+
+            mSimulation.stop();
+
+        }
+        if (mRecording != null) {
+
+            try {
+
+                mRecording.write(mRecordPath);
+
+            } catch (Exception e) {
+
+                e.printStackTrace();
+
+            }
+
+        }
+        super.dispose();
 
     }
 
     /// Handle mouse pressed event.
     public void mousePressed() {
 
+        // Player input is ignored while recorded input is replayed.
+        if (isReplaying()) {
+
+            return;
+
+        }
+
         // Delegate left or right mouse click events to scene.
+        PVector position = new PVector(mouseX, mouseY);
         if (mouseButton == LEFT) {
 
-            mScene.handleLeftClick(new PVector(mouseX, mouseY));
+            mSimulation.post(scene -> scene.handleLeftClick(position));
 
         } else if (mouseButton == RIGHT) {
 
-            mScene.handleRightClick(new PVector(mouseX, mouseY));
+            mSimulation.post(scene -> scene.handleRightClick(position));
 
         }
 
     }
 
+    /// Handle mouse moved event.
+    public void mouseMoved() {
+
+        // Delegate mouse movement to scene for positioning crosshair.
+        PVector position = new PVector(mouseX, mouseY);
+        mSimulation.post(scene -> scene.handleMouseMove(position));
+
+    }
+
+    /// Handle mouse dragged event.
+    public void mouseDragged() {
+
+        mouseMoved();
+
+    }
+
     /// Handle key press events.
     public void keyPressed() {
 
-        // Delegate space press events to the scene.
-        if (key == ' ') {
+        // Delegate space press events to the scene unless replaying recorded input.
+        if (key == ' ' && !isReplaying()) {
+
+            mSimulation.post(scene -> scene.handleSpace());
+
+        // Write profiler timings to a file.
+        } else if (key == 'p' && mProfiling) {
+
+            String path = sketchPath("profile.csv");
+            mSimulation.post(scene -> writeProfile(scene.getProfiler(), path));
+
+        }
+
+    }
+
+    /// Write profiler timings to a CSV file.
+    /// \param profiler the profiler to write timings from.
+    /// \param path path of the file to write.
+    private static void writeProfile(Profiler profiler, String path) {
+
+        try {
+
+            profiler.writeCsv(path);
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+        }
+
+    }
+
+    /// Check whether recorded input is still being replayed, ignoring player input.
+    /// \return whether there is recorded input left to replay.
+    private boolean isReplaying() {
 
-            mScene.handleSpace();
+        return mReplay != null && !mReplay.isFinished();
+
+    }
+
+    /// Check whether an option was passed on the command line.
+    /// \param option the option to check for.
+    /// \return whether the option was passed.
+    private boolean hasOption(String option) {
+
+        if (args != null) {
+
+            for (String arg : args) {
+
+                if (arg.equals(option)) {
+
+                    return true;
+
+                }
+
+            }
 
         }
+        return false;
 
     }
 
-    /// Add contiguous clips of a set size to a texture starting at specified index.
-    /// \param texture the texture to add clips to.
-    /// \param startIndex the index to start adding clips at.
-    /// \param clips the number of clips to add.
-    /// \param width the width of each clip to add.
-    /// \param height the height of each clip to add.
-    private void addClips(Texture texture, int startIndex, int clips, int width, int height) {
+    /// Get the value following an option passed on the command line.
+    /// \param option the option to get the value of.
+    /// \return the value of the option or null if it was not passed.
+    private String getOption(String option) {
+
+        if (args != null) {
+
+            for (int i = 0; i + 1 < args.length; ++i) {
+
+                if (args[i].equals(option)) {
+
+                    return args[i + 1];
 
-        for (int i = startIndex; i < clips; ++i) {
+                }
 
-            texture.addClip(new Rect(i * width, 0, width, height));
+            }
 
         }
+        return null;
 
     }
 
@@ -0,0 +1,246 @@
+import processing.core.PVector;
+import random.Randomiser;
+import replay.InputRecording;
+import replay.InputReplay;
+import profile.Profiler;
+import scene.Scene;
+import state.WaveState;
+import texture.TextureManager;
+import texture.TextureManifest;
+import texture.Texture;
+
+/// Runs the game simulation without a window or rendering, updating the scene with
+/// the fixed timestep as fast as possible while feeding it scripted input. Reports
+/// how many steps per second were simulated. Input can instead be replayed from a
+/// recorded session.
+public class Headless {
+
+    /// The fixed update timestep used.
+    private final float mStepSize;
+
+    /// The number of steps to simulate.
+    private final int mSteps;
+
+    /// Steps between scripted left clicks.
+    private final int mClickInterval;
+
+    /// Steps between scripted right clicks.
+    private final int mHoleInterval;
+
+    /// Steps between scripted space presses while no wave is being played.
+    private final int mSpaceInterval;
+
+    /// Random numbers used to pick scripted click positions.
+    private final Randomiser mRandom;
+
+    /// The scene being simulated.
+    private final Scene mScene;
+
+    /// Recorded input replayed instead of scripted input, null if not replaying.
+    private InputReplay mReplay;
+
+    /// Initialise scene with textures that have clips but no images.
+    /// \param steps the number of steps to simulate.
+    /// \param seed seed for random numbers in the scene and scripted input.
+    /// \param stepSize the fixed timestep to update the scene with.
+    public Headless(int steps, long seed, float stepSize) throws Exception {
+
+        mStepSize = stepSize;
+        mSteps = steps;
+        mClickInterval = 25;
+        mHoleInterval = 500;
+        mSpaceInterval = 100;
+        Randomiser random = new Randomiser(seed);
+        mRandom = random.stream("input");
+
+        TextureManager tManager = new TextureManager();
+        TextureManifest manifest = TextureManifest.read("data/textures.txt");
+        tManager.load(manifest, (path, width, height) -> new Texture(width, height));
+        mScene = new Scene(tManager, seed);
+        mReplay = null;
+
+    }
+
+    /// Replay recorded input instead of scripted input.
+    /// \param replay the replay to feed the scene from.
+    public void setReplay(InputReplay replay) {
+
+        mReplay = replay;
+
+    }
+
+    /// Get the profiler timing sections of the scene's updates.
+    /// \return the scene's profiler.
+    public Profiler getProfiler() {
+
+        return mScene.getProfiler();
+
+    }
+
+    /// Log all input given to the scene into a recording.
+    /// \param recording the recording to log input into.
+    public void setRecording(InputRecording recording) {
+
+        mScene.setRecording(recording);
+
+    }
+
+    /// Run the headless simulation.
+    /// \param args command line options. --steps followed by a number sets the number
+    ///             of steps to simulate. --seed followed by a number seeds random numbers.
+    ///             --record followed by a path records input to the path.
+    ///             --replay followed by a path replays recorded input from the path, 
+    ///             using its seed, its timestep and by default its number of steps.
+    ///             --profile followed by a path writes update timings to the path.
+    public static void main(String[] args) throws Exception {
+
+        // Number of steps, 0 if not given.
+        int steps = 0;
+        long seed = 0L;
+        float stepSize = 0.01f;
+        String recordPath = null;
+        String replayPath = null;
+        String profilePath = null;
+        for (int i = 0; i + 1 < args.length; ++i) {
+
+            if (args[i].equals("--steps")) {
+
+                steps = Integer.parseInt(args[i + 1]);
+
+            } else if (args[i].equals("--seed")) {
+
+                seed = Long.parseLong(args[i + 1]);
+
+            } else if (args[i].equals("--record")) {
+
+                recordPath = args[i + 1];
+
+            } else if (args[i].equals("--replay")) {
+
+                replayPath = args[i + 1];
+
+            } else if (args[i].equals("--profile")) {
+
+                profilePath = args[i + 1];
+
+            }
+
+        }
+
+        // Replay the recorded session with the same seed, timestep and length.
+        InputRecording replay = null;
+        if (replayPath != null) {
+
+            replay = InputRecording.read(replayPath);
+            seed = replay.getSeed();
+            stepSize = replay.getStepSize();
+            if (steps == 0) {
+
+                steps = replay.getLength();
+
+            }
+
+        }
+        if (steps == 0) {
+
+            steps = 100000;
+
+        }
+
+        Headless headless = new Headless(steps, seed, stepSize);
+        if (replay != null) {
+
+            headless.setReplay(new InputReplay(replay));
+
+        }
+
+        InputRecording recording = null;
+        if (recordPath != null) {
+
+            recording = new InputRecording(seed, stepSize);
+            headless.setRecording(recording);
+
+        }
+
+        Profiler profiler = headless.getProfiler();
+        profiler.setEnabled(profilePath != null);
+
+        headless.run();
+        if (recording != null) {
+
+            recording.write(recordPath);
+
+        }
+        if (profilePath != null) {
+
+            profiler.writeCsv(profilePath);
+
+        }
+
+    }
+
+    /// Simulate every step, then report the throughput.
+    public void run() {
+
+        long start = System.nanoTime();
+        for (int step = 0; step < mSteps; ++step) {
+
+            script(step);
+            mScene.update(mStepSize);
+
+        }
+        float seconds = (System.nanoTime() - start) / 1e9f;
+
+        System.out.println("Simulated " + mSteps + " steps in " + seconds + "s");
+        System.out.println("Steps per second: " + mSteps / seconds);
+        System.out.println("Reached wave " + mScene.getWave() + " with score " + mScene.getScore());
+
+    }
+
+    /// Feed scripted input to the scene before a step.
+    /// \param step index of the step about to be simulated.
+    private void script(int step) {
+
+        if (mReplay != null) {
+
+            mReplay.apply(mScene);
+            return;
+
+        }
+
+        // Keep the game going by pressing space whenever a wave is not being played,
+        // like a player starting waves, skipping intervals and restarting.
+        if (!(mScene.getState() instanceof WaveState)) {
+
+            if (step % mSpaceInterval == 0) {
+
+                mScene.handleSpace();
+
+            }
+            return;
+
+        }
+
+        // Fire missiles and black holes at random points above the cities.
+        if (step % mClickInterval == 0) {
+
+            mScene.handleLeftClick(randomTarget());
+
+        }
+        if (step % mHoleInterval == 0) {
+
+            mScene.handleRightClick(randomTarget());
+
+        }
+
+    }
+
+    /// Pick a random point for a scripted click.
+    /// \return the point to click.
+    private PVector randomTarget() {
+
+        return new PVector(mRandom.randomFloat(100f, 900f), mRandom.randomFloat(100f, 700f));
+
+    }
+
+}
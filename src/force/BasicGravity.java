@@ -1,7 +1,6 @@
 package force;
 
-import processing.core.PVector;
-import gameobject.PhysicsObject;
+import gameobject.ParticleStore;
 
 /// The simplified force of gravity applying a constant downwards force.
 public class BasicGravity extends ForceGenerator {
@@ -17,14 +16,12 @@ public class BasicGravity extends ForceGenerator {
     }
 
     /// Force of gravity is mg (Mass times gravitational acceleration).
-    /// \param object the game object to calculate the force for.
-    /// \return the force that should be applied to the object.
-    public PVector generateForce(PhysicsObject object) {
-
-        PVector force = new PVector(0f, 1f);
-        float mass = object.getMass();        
-        force.mult(mAcceleration).mult(mass);
-        return force;
+    /// \param particles the store holding the particle.
+    /// \param index the index of the particle to apply the force to.
+    public void generateForce(ParticleStore particles, int index) {
+
+        float mass = particles.getMass(index);        
+        particles.applyForce(index, 0f, mAcceleration * mass);
 
     }
 
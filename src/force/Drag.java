@@ -1,7 +1,6 @@
 package force;
 
-import processing.core.PVector;
-import gameobject.PhysicsObject;
+import gameobject.ParticleStore;
 
 /// Force of drag opposing the velocity of objects.
 public class Drag extends ForceGenerator {
@@ -18,17 +17,22 @@ public class Drag extends ForceGenerator {
 
     }
 
-    /// Calculate force opposing object's velocity based on constants.
-    /// \param object the game object to calculate the force for.
-    /// \return the force that should be applied to the object.
-    public PVector generateForce(PhysicsObject object) {
-
-        PVector force = object.getVelocity();
-        float dragCoeff = force.mag();
-        dragCoeff = mK1 * dragCoeff + mK2 * dragCoeff * dragCoeff;
-        force.normalize();
-        force.mult(-dragCoeff);
-        return force;
+    /// Calculate force opposing particle's velocity based on constants.
+    /// \param particles the store holding the particle.
+    /// \param index the index of the particle to apply the force to.
+    public void generateForce(ParticleStore particles, int index) {
+
+        float x = particles.getXVelocity(index);
+        float y = particles.getYVelocity(index);
+        float speed = (float)Math.sqrt(x * x + y * y);
+        if (speed > 0f) {
+
+            // Scale normalised velocity by negative drag coefficient.
+            float dragCoeff = mK1 * speed + mK2 * speed * speed;
+            float scale = -dragCoeff / speed;
+            particles.applyForce(index, x * scale, y * scale);
+
+        }
 
     }
 
@@ -1,7 +1,6 @@
 package force;
 
-import processing.core.PVector;
-import gameobject.PhysicsObject;
+import gameobject.ParticleStore;
 import gameobject.Projectile;
 
 /// Explosion force produced by a projectile.
@@ -21,26 +20,58 @@ public class Explosion extends ForceGenerator {
 
     }
 
-    /// Generate outward force if object collides with projectile explosion.
-    /// \param object the game object to calculate the force for.
-    /// \return the force that should be applied to the object.
-    public PVector generateForce(PhysicsObject object) {
+    /// The explosion only pushes particles that collide with the projectile.
+    /// \return true.
+    public boolean isLocal() {
 
-        // Deactivate force if projectile has finished exploding.
-        if (mProjectile.isDestroyed()) {
+        return true;
 
-            deactivate();
+    }
+
+    /// Get the x coordinate of the centre of the explosion.
+    /// \return the x coordinate of the projectile.
+    public float getXCentre() {
+
+        return mProjectile.getXTranslation();
+
+    }
+
+    /// Get the y coordinate of the centre of the explosion.
+    /// \return the y coordinate of the projectile.
+    public float getYCentre() {
+
+        return mProjectile.getYTranslation();
+
+    }
+
+    /// Get the radius of the explosion.
+    /// \return the current collision radius of the projectile.
+    public float getRadius() {
+
+        return mProjectile.getRadius();
+
+    }
+
+    /// Generate outward force if particle collides with projectile explosion.
+    /// \param particles the store holding the particle.
+    /// \param index the index of the particle to apply the force to.
+    public void generateForce(ParticleStore particles, int index) {
+
+        // Apply force away from centre of explosion only if particle is in explosion. 
+        // The projectile deactivates this force when it finishes exploding.
+        if (particles.collides(index, mProjectile)) {
+
+            float x = particles.getXTranslation(index) - mProjectile.getXTranslation();
+            float y = particles.getYTranslation(index) - mProjectile.getYTranslation();
+            float distance = (float)Math.sqrt(x * x + y * y);
+            if (distance > 0f) {
 
-        // Apply force away from centre of explosion only if object is in explosion. 
-        } else if (mProjectile.collides(object)) {
+                float scale = mMagnitude / distance;
+                particles.applyForce(index, x * scale, y * scale);
 
-            PVector position = object.getTranslation();
-            PVector force = PVector.sub(object.getTranslation(), mProjectile.getTranslation());
-            force.setMag(mMagnitude);
-            return force;
+            }
 
         }
-        return new PVector(0f, 0f);
 
     }
 
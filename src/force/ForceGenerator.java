@@ -1,9 +1,8 @@
 package force;
 
-import processing.core.PVector;
-import gameobject.PhysicsObject;
+import gameobject.ParticleStore;
 
-/// Class representing a force that can be generated and applied to a PhysicsObject.
+/// Class representing a force that can be generated and applied to a particle.
 public abstract class ForceGenerator {
 
     /// Whether the force is current acting on objects in the game world.
@@ -31,9 +30,46 @@ public abstract class ForceGenerator {
 
     }
 
-    /// Calculate the strength of the force being acted upon a object.
-    /// \param object the game object to calculate the force for.
-    /// \return the force that should be applied to the object.
-    public abstract PVector generateForce(PhysicsObject object);
+    /// Check whether the force only acts on particles overlapping a circle, so that it
+    /// only needs to be applied to particles found near the circle. Forces are global
+    /// and act on every particle unless overridden.
+    /// \return whether the force only acts within its area of influence.
+    public boolean isLocal() {
+
+        return false;
+
+    }
+
+    /// Get the x coordinate of the centre of a local force's area of influence.
+    /// \return the x coordinate of the centre of the area.
+    public float getXCentre() {
+
+        return 0f;
+
+    }
+
+    /// Get the y coordinate of the centre of a local force's area of influence.
+    /// \return the y coordinate of the centre of the area.
+    public float getYCentre() {
+
+        return 0f;
+
+    }
+
+    /// Get the radius of a local force's area of influence. Particles act on are those
+    /// whose collision circle overlaps the area.
+    /// \return the radius of the area.
+    public float getRadius() {
+
+        return Float.POSITIVE_INFINITY;
+
+    }
+
+    /// Calculate the strength of the force being acted upon a particle and add it
+    /// to the particle's accumulated forces. Must not modify anything other than the
+    /// particle's forces as it may be called for different particles concurrently.
+    /// \param particles the store holding the particle.
+    /// \param index the index of the particle to apply the force to.
+    public abstract void generateForce(ParticleStore particles, int index);
 
 }
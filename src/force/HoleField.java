@@ -0,0 +1,382 @@
+package force;
+
+import java.util.Arrays;
+import java.util.List;
+import gameobject.ParticleStore;
+
+/// Approximate gravitational field of many black holes. Holes are grouped in a
+/// quadtree rebuilt once per update, and groups far enough from a particle are
+/// treated as a single hole at their centre of mass (Barnes-Hut). The opening angle
+/// bounds the error: a group is only approximated if its size divided by its distance
+/// from the particle is less than the angle, so an angle of 0 gives the exact force.
+public class HoleField {
+
+    /// Deepest that the tree is split, holes in the same cell are kept in one leaf.
+    private static final int MAX_DEPTH = 16;
+
+    /// Square of the opening angle.
+    private final float mThetaSquared;
+
+    /// Number of holes in the field.
+    private int mHoleCount;
+
+    /// Position and strength (gravitational constant times mass) of each hole.
+    /// Holes are reordered when building so that each node's holes are contiguous.
+    private float[] mHoleX;
+    private float[] mHoleY;
+    private float[] mHoleStrength;
+
+    /// Number of nodes in the tree, the root is node 0.
+    private int mNodeCount;
+
+    /// Centre of mass of each node's holes.
+    private float[] mCentreX;
+    private float[] mCentreY;
+
+    /// Total strength of each node's holes.
+    private float[] mStrength;
+
+    /// Width of each node's square.
+    private float[] mSize;
+
+    /// Index of each node's first child, children are contiguous.
+    private int[] mFirstChild;
+
+    /// Number of children of each node, 0 for leaves.
+    private int[] mChildCount;
+
+    /// Node to visit after each node when its children are skipped, -1 for none.
+    private int[] mNext;
+
+    /// Range of holes in each node.
+    private int[] mFrom;
+    private int[] mTo;
+
+    /// Initialise empty field.
+    /// \param theta the opening angle, larger is faster but less accurate.
+    public HoleField(float theta) {
+
+        int capacity = 16;
+        mThetaSquared = theta * theta;
+        mHoleCount = 0;
+        mHoleX = new float[capacity];
+        mHoleY = new float[capacity];
+        mHoleStrength = new float[capacity];
+        mNodeCount = 0;
+        mCentreX = new float[capacity];
+        mCentreY = new float[capacity];
+        mStrength = new float[capacity];
+        mSize = new float[capacity];
+        mFirstChild = new int[capacity];
+        mChildCount = new int[capacity];
+        mNext = new int[capacity];
+        mFrom = new int[capacity];
+        mTo = new int[capacity];
+
+    }
+
+    /// Get the number of holes in the field.
+    /// \return the number of holes.
+    public int size() {
+
+        return mHoleCount;
+
+    }
+
+    /// Rebuild the field from the black hole gravity forces in a list of forces.
+    /// \param forces the forces to take black holes from, other forces are ignored.
+    public void build(List<ForceGenerator> forces) {
+
+        mHoleCount = 0;
+        mNodeCount = 0;
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < forces.size(); ++i) {
+
+            ForceGenerator force = forces.get(i);
+            if (force instanceof HoleGravity) {
+
+                HoleGravity gravity = (HoleGravity)force;
+                if (mHoleCount == mHoleX.length) {
+
+                    growHoles();
+
+                }
+                mHoleX[mHoleCount] = gravity.getXTranslation();
+                mHoleY[mHoleCount] = gravity.getYTranslation();
+                mHoleStrength[mHoleCount] = gravity.getStrength();
+                minX = Math.min(minX, mHoleX[mHoleCount]);
+                minY = Math.min(minY, mHoleY[mHoleCount]);
+                maxX = Math.max(maxX, mHoleX[mHoleCount]);
+                maxY = Math.max(maxY, mHoleY[mHoleCount]);
+                ++mHoleCount;
+
+            }
+
+        }
+
+        if (mHoleCount > 0) {
+
+            float size = Math.max(maxX - minX, maxY - minY);
+            int root = addNode();
+            mNext[root] = -1;
+            buildNode(root, 0, mHoleCount, minX, minY, size, 0);
+
+        }
+
+    }
+
+    /// Add the gravitational force of every hole in the field to a particle.
+    /// Only modifies the particle's forces so can be called for different particles
+    /// concurrently.
+    /// \param particles the store holding the particle.
+    /// \param index the index of the particle to apply the force to.
+    public void apply(ParticleStore particles, int index) {
+
+        float x = particles.getXTranslation(index);
+        float y = particles.getYTranslation(index);
+
+        // Sum force per unit mass, visiting the tree without recursion by following
+        // each node's next pointer when skipping its children.
+        float xForce = 0f;
+        float yForce = 0f;
+        int node = (mNodeCount > 0) ? 0 : -1;
+        while (node != -1) {
+
+            float xDistance = mCentreX[node] - x;
+            float yDistance = mCentreY[node] - y;
+            float squared = xDistance * xDistance + yDistance * yDistance;
+            float size = mSize[node];
+            if (mChildCount[node] == 0) {
+
+                // Leaves are small or hold a single hole so use each hole exactly.
+                for (int i = mFrom[node]; i < mTo[node]; ++i) {
+
+                    float holeX = mHoleX[i] - x;
+                    float holeY = mHoleY[i] - y;
+                    float holeSquared = holeX * holeX + holeY * holeY;
+                    if (holeSquared > 0f) {
+
+                        float scale = mHoleStrength[i] / (holeSquared * (float)Math.sqrt(holeSquared));
+                        xForce += holeX * scale;
+                        yForce += holeY * scale;
+
+                    }
+
+                }
+                node = mNext[node];
+
+            // Treat the node as a single hole if it is far enough away.
+            } else if (size * size < mThetaSquared * squared) {
+
+                float scale = mStrength[node] / (squared * (float)Math.sqrt(squared));
+                xForce += xDistance * scale;
+                yForce += yDistance * scale;
+                node = mNext[node];
+
+            } else {
+
+                node = mFirstChild[node];
+
+            }
+
+        }
+
+        // Calculate force towards holes using (Gm1m2)/d^2
+        float mass = particles.getMass(index);
+        particles.applyForce(index, xForce * mass, yForce * mass);
+
+    }
+
+    /// Initialise a node for a range of holes and split it into quadrants.
+    /// \param node the node to initialise.
+    /// \param from index of the node's first hole.
+    /// \param to index after the node's last hole.
+    /// \param minX x coordinate of the node square's top left corner.
+    /// \param minY y coordinate of the node square's top left corner.
+    /// \param size width of the node's square.
+    /// \param depth depth of the node in the tree.
+    private void buildNode(int node, int from, int to, float minX, float minY, float size, int depth) {
+
+        // Total strength and centre of mass of the node's holes.
+        float strength = 0f;
+        float x = 0f;
+        float y = 0f;
+        for (int i = from; i < to; ++i) {
+
+            strength += mHoleStrength[i];
+            x += mHoleX[i] * mHoleStrength[i];
+            y += mHoleY[i] * mHoleStrength[i];
+
+        }
+        mStrength[node] = strength;
+        mCentreX[node] = (strength != 0f) ? x / strength : mHoleX[from];
+        mCentreY[node] = (strength != 0f) ? y / strength : mHoleY[from];
+        mSize[node] = size;
+        mFrom[node] = from;
+        mTo[node] = to;
+        mFirstChild[node] = 0;
+        mChildCount[node] = 0;
+
+        if (to - from <= 1 || depth == MAX_DEPTH || size <= 0f) {
+
+            return;
+
+        }
+
+        // Partition holes into quadrants: top left, top right, bottom left, bottom right.
+        float half = size / 2f;
+        float midX = minX + half;
+        float midY = minY + half;
+        int topEnd = partition(from, to, midY, false);
+        int topLeftEnd = partition(from, topEnd, midX, true);
+        int bottomLeftEnd = partition(topEnd, to, midX, true);
+
+        // Children are added contiguously before any of them are split further.
+        int first = mNodeCount;
+        int children = 0;
+        for (int q = 0; q < 4; ++q) {
+
+            if (bound(q + 1, from, topLeftEnd, topEnd, bottomLeftEnd, to) > 
+                bound(q, from, topLeftEnd, topEnd, bottomLeftEnd, to)) {
+
+                addNode();
+                ++children;
+
+            }
+
+        }
+        mFirstChild[node] = first;
+        mChildCount[node] = children;
+
+        // After skipping a child visit its next sibling, or after the last child
+        // continue from wherever the node itself would have continued.
+        for (int i = 0; i < children; ++i) {
+
+            mNext[first + i] = (i + 1 < children) ? first + i + 1 : mNext[node];
+
+        }
+
+        int child = first;
+        for (int q = 0; q < 4; ++q) {
+
+            int start = bound(q, from, topLeftEnd, topEnd, bottomLeftEnd, to);
+            int end = bound(q + 1, from, topLeftEnd, topEnd, bottomLeftEnd, to);
+            if (end > start) {
+
+                float childX = (q % 2 == 0) ? minX : midX;
+                float childY = (q < 2) ? minY : midY;
+                buildNode(child++, start, end, childX, childY, half, depth + 1);
+
+            }
+
+        }
+
+    }
+
+    /// Get the index a quadrant's holes start at, or the end of the last quadrant.
+    /// \param q the quadrant from 0 to 3, or 4 for the end.
+    /// \param from index of the first hole.
+    /// \param topLeftEnd index after the top left quadrant's holes.
+    /// \param topEnd index after the top right quadrant's holes.
+    /// \param bottomLeftEnd index after the bottom left quadrant's holes.
+    /// \param to index after the last hole.
+    /// \return the index of the boundary.
+    private static int bound(int q, int from, int topLeftEnd, int topEnd, int bottomLeftEnd, int to) {
+
+        if (q == 0) {
+
+            return from;
+
+        } else if (q == 1) {
+
+            return topLeftEnd;
+
+        } else if (q == 2) {
+
+            return topEnd;
+
+        } else if (q == 3) {
+
+            return bottomLeftEnd;
+
+        }
+        return to;
+
+    }
+
+    /// Reorder a range of holes so that holes before a split come first.
+    /// \param from index of the first hole.
+    /// \param to index after the last hole.
+    /// \param split coordinate to split at.
+    /// \param onX whether to split on x coordinates, otherwise y coordinates.
+    /// \return index of the first hole after the split.
+    private int partition(int from, int to, float split, boolean onX) {
+
+        int end = from;
+        for (int i = from; i < to; ++i) {
+
+            float value = onX ? mHoleX[i] : mHoleY[i];
+            if (value < split) {
+
+                swap(i, end++);
+
+            }
+
+        }
+        return end;
+
+    }
+
+    /// Swap two holes.
+    /// \param a index of the first hole.
+    /// \param b index of the second hole.
+    private void swap(int a, int b) {
+
+        float x = mHoleX[a];
+        float y = mHoleY[a];
+        float strength = mHoleStrength[a];
+        mHoleX[a] = mHoleX[b];
+        mHoleY[a] = mHoleY[b];
+        mHoleStrength[a] = mHoleStrength[b];
+        mHoleX[b] = x;
+        mHoleY[b] = y;
+        mHoleStrength[b] = strength;
+
+    }
+
+    /// Add a node, growing storage if needed.
+    /// \return index of the new node.
+    private int addNode() {
+
+        if (mNodeCount == mCentreX.length) {
+
+            int capacity = mCentreX.length * 2;
+            mCentreX = Arrays.copyOf(mCentreX, capacity);
+            mCentreY = Arrays.copyOf(mCentreY, capacity);
+            mStrength = Arrays.copyOf(mStrength, capacity);
+            mSize = Arrays.copyOf(mSize, capacity);
+            mFirstChild = Arrays.copyOf(mFirstChild, capacity);
+            mChildCount = Arrays.copyOf(mChildCount, capacity);
+            mNext = Arrays.copyOf(mNext, capacity);
+            mFrom = Arrays.copyOf(mFrom, capacity);
+            mTo = Arrays.copyOf(mTo, capacity);
+
+        }
+        return mNodeCount++;
+
+    }
+
+    /// Double the capacity for holes.
+    private void growHoles() {
+
+        int capacity = mHoleX.length * 2;
+        mHoleX = Arrays.copyOf(mHoleX, capacity);
+        mHoleY = Arrays.copyOf(mHoleY, capacity);
+        mHoleStrength = Arrays.copyOf(mHoleStrength, capacity);
+
+    }
+
+}
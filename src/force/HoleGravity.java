@@ -1,8 +1,7 @@
 package force;
 
-import processing.core.PVector;
 import gameobject.BlackHole;
-import gameobject.PhysicsObject;
+import gameobject.ParticleStore;
 
 /// Gravitational force generated by a black hole.
 public class HoleGravity extends ForceGenerator {
@@ -21,26 +20,46 @@ public class HoleGravity extends ForceGenerator {
 
     }
 
-    /// Generate force towards black hole based on object's distance from it.
-    /// \param object the game object to calculate the force for.
-    /// \return the force that should be applied to the object.
-    public PVector generateForce(PhysicsObject object) {
+    /// Get the translation of the black hole on the x axis.
+    /// \return the x coordinate of the black hole.
+    public float getXTranslation() {
 
-        // Only apply force while black hole is not destroyed.
-        if (mBlackHole.isDestroyed()) {
+        return mBlackHole.getXTranslation();
 
-            deactivate();
-            return new PVector(0f, 0f);
+    }
+
+    /// Get the translation of the black hole on the y axis.
+    /// \return the y coordinate of the black hole.
+    public float getYTranslation() {
+
+        return mBlackHole.getYTranslation();
+
+    }
+
+    /// Get the strength of the black hole's gravity.
+    /// \return the gravitational constant times the black hole's mass.
+    public float getStrength() {
+
+        return mGravity * mBlackHole.getMass();
+
+    }
 
-        } else {
+    /// Generate force towards black hole based on particle's distance from it.
+    /// \param particles the store holding the particle.
+    /// \param index the index of the particle to apply the force to.
+    public void generateForce(ParticleStore particles, int index) {
 
-            PVector position = object.getTranslation();
-            PVector distance = PVector.sub(mBlackHole.getTranslation(), object.getTranslation());
+        // The black hole deactivates this force when it is destroyed.
+        float x = mBlackHole.getXTranslation() - particles.getXTranslation(index);
+        float y = mBlackHole.getYTranslation() - particles.getYTranslation(index);
+        float squared = x * x + y * y;
+        if (squared > 0f) {
 
             // Calculate force towards black hole using (Gm1m2)/d^2
             float force = 
-            (mGravity * mBlackHole.getMass() * object.getMass()) / (float)Math.pow(distance.mag(), 2);
-            return distance.setMag(force);
+            (mGravity * mBlackHole.getMass() * particles.getMass(index)) / squared;
+            float scale = force / (float)Math.sqrt(squared);
+            particles.applyForce(index, x * scale, y * scale);
 
         }
 
@@ -1,8 +1,6 @@
 package gameobject;
 
 import processing.core.PApplet;
-import java.util.Iterator;
-import scene.ParticleManager;
 import texture.Texture;
 import texture.Animation;
 
@@ -49,31 +47,18 @@ public class City extends CollidableObject {
 
     }
 
-    /// Destroy the city if it collides with a particle. If it is already destroyed then
-    /// update destruction animation.
-    /// \param delta the time since the last update.
-    /// \param pManager particles to check collision with.
-    public void update(float delta, ParticleManager pManager) {
-
-        /// If the city has not been destroyed: destroy it if it collides with a particle.
-        if (!mDestroyed) {
-
-            Iterator<Particle> it = pManager.iterator();
-            while(!mDestroyed && it.hasNext()) {
+    /// Destroy the city so that its destruction is animated from the next update.
+    public void destroy() {
 
-                // Destroy particle and city on collision.
-                Particle particle = it.next();
-                if (particle.isFlying() && collides(particle)) {
+        mDestroyed = true;
 
-                    mDestroyed = true;
-                    particle.explode();
-
-                }
+    }
 
-            }
+    /// Update destruction animation if the city is destroyed.
+    /// \param delta the time since the last update.
+    public void update(float delta) {
 
-        /// Update destruction animation if city is already destroyed.
-        } else {
+        if (mDestroyed) {
 
             mDestruction.update(delta);
             setClip(mDestruction.getClip());
@@ -42,4 +42,19 @@ public class CollidableObject extends TextureObject {
 
     }
 
+    /// Check if this object collides with a circle.
+    /// \param x x coordinate of the circle's centre.
+    /// \param y y coordinate of the circle's centre.
+    /// \param radius radius of the circle.
+    /// \return whether this object and the circle collide.
+    public boolean collides(float x, float y, float radius) {
+
+        // Compare squared distance between centres with squared sum of radii.
+        float dx = x - getXTranslation();
+        float dy = y - getYTranslation();
+        float radii = radius + getRadius();
+        return (radii * radii) > (dx * dx + dy * dy);
+
+    }
+
 }
@@ -1,7 +1,6 @@
 package gameobject;
 
 import processing.core.PVector;
-import processing.core.PApplet;
 
 public class GameObject {
 
@@ -14,6 +13,15 @@ public class GameObject {
     // Scale of object.
     private PVector mScale;
 
+    // Rotation of object in degrees at the previous update.
+    private float mPreviousRotation;
+
+    // Translation of object at the previous update.
+    private PVector mPreviousTranslation;
+
+    // Scale of object at the previous update.
+    private PVector mPreviousScale;
+
     /// Initialise transformation properties.
     public GameObject() {
 
@@ -21,18 +29,59 @@ public class GameObject {
         mTranslation = new PVector(0f, 0f);
         mScale = new PVector(1f, 1f);
 
+        mPreviousRotation = 0f;
+        mPreviousTranslation = new PVector(0f, 0f);
+        mPreviousScale = new PVector(1f, 1f);
+
+    }
+
+    /// Store the current transformation as the previous update's transformation 
+    /// so that rendering can interpolate between the two.
+    public void storePrevious() {
+
+        mPreviousRotation = getRotation();
+        mPreviousTranslation.set(mTranslation);
+        mPreviousScale.set(mScale);
+
+    }
+
+    /// Get the object's rotation in degrees at the previous update.
+    /// \return the object's previous rotation.
+    public float getPreviousRotation() {
+
+        return mPreviousRotation;
+
+    }
+
+    /// Get the translation of the object on the x axis at the previous update.
+    /// \return the previous translation of the object on the x axis.
+    public float getPreviousXTranslation() {
+
+        return mPreviousTranslation.x;
+
+    }
+
+    /// Get the translation of the object on the y axis at the previous update.
+    /// \return the previous translation of the object on the y axis.
+    public float getPreviousYTranslation() {
+
+        return mPreviousTranslation.y;
+
+    }
+
+    /// Get the scale of the object on the x axis at the previous update.
+    /// \return the previous scale of the object on the x axis.
+    public float getPreviousXScale() {
+
+        return mPreviousScale.x;
+
     }
 
-    /// Apply the objects current transformation to the world.
-    /// \param core Processing core to use to carry out the transformation.
-    void applyTransform(PApplet core) {
+    /// Get the scale of the object on the y axis at the previous update.
+    /// \return the previous scale of the object on the y axis.
+    public float getPreviousYScale() {
 
-        // Scale, rotate, then translate to match object's current translation.
-        // (Transformations applied in opposite order that they occur due to
-        // column wise matrices use in underlying OpenGL API)
-        core.translate(mTranslation.x, mTranslation.y);
-        core.rotate(core.radians(getRotation()));
-        core.scale(mScale.x, mScale.y);
+        return mPreviousScale.y;
 
     }
 
@@ -111,11 +160,12 @@ public class GameObject {
 
     }
 
-    /// Set the object's rotation.
+    /// Set the object's rotation. The object is not interpolated from its old rotation.
     /// \param angle the angle in degrees to set the object's rotation to.
     public void setRotation(float angle) {
 
         mRotation = angle;
+        mPreviousRotation = getRotation();
 
     }
 
@@ -136,20 +186,22 @@ public class GameObject {
 
     }
 
-    /// Set the object's translation.
+    /// Set the object's translation. The object is not interpolated from its old translation.
     /// \param translation point to set the object's translation to.
     public void setTranslation(PVector translation) {
 
         mTranslation.set(translation);
+        mPreviousTranslation.set(translation);
 
     }
 
-    /// Set the object's translation.
+    /// Set the object's translation. The object is not interpolated from its old translation.
     /// \param x x component of object's new translation.
     /// \param y y component of object's new translation.
     public void setTranslation(float x, float y) {
 
         mTranslation.set(x, y);
+        mPreviousTranslation.set(x, y);
 
     }
 
@@ -172,20 +224,22 @@ public class GameObject {
 
     }
 
-    /// Set the scale of the object.
+    /// Set the scale of the object. The object is not interpolated from its old scale.
     /// \param scale the new scale to set the object to use.
     public void setScale(PVector scale) {
 
         mScale.set(scale);
+        mPreviousScale.set(scale);
 
     }
 
-    /// Set the scale of the object.
+    /// Set the scale of the object. The object is not interpolated from its old scale.
     /// \param x the new scale on the x axis.
     /// \param y the new scale on the y axis.
     public void setScale(float x, float y) {
 
         mScale.set(x, y);
+        mPreviousScale.set(x, y);
 
     }
 
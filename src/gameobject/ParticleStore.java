@@ -0,0 +1,402 @@
+package gameobject;
+
+import render.Snapshot;
+import java.util.Arrays;
+import texture.Texture;
+import texture.Animation;
+
+/// Storage for particles that are effected by forces and can explode and be destroyed.
+/// Particle properties are kept in parallel arrays and each particle is identified by
+/// its index. Indices are only valid until the next update removes destroyed particles.
+public class ParticleStore {
+
+    /// States that a particle can be in.
+    public static final byte FLYING = 0;
+    public static final byte EXPLODING = 1;
+    public static final byte DESTROYED = 2;
+
+    /// Step length in seconds that forces are tuned for as impulses per step.
+    public static final float FORCE_STEP = 0.01f;
+
+    /// Clip used to display flying particles.
+    private static final int FLYING_CLIP = 1;
+
+    /// Texture used to display particles.
+    private final Texture mTexture;
+
+    /// Explosion animation shared by all particles (progress is stored per particle).
+    private final Animation mExplosion;
+
+    /// Unscaled collision radius for each clip of the texture.
+    private final float[] mClipRadius;
+
+    /// Number of particles in the store.
+    private int mCount;
+
+    /// Translation of each particle.
+    private float[] mX;
+    private float[] mY;
+
+    /// Translation of each particle at the previous update.
+    private float[] mPreviousX;
+    private float[] mPreviousY;
+
+    /// Velocity of each particle.
+    private float[] mXVelocity;
+    private float[] mYVelocity;
+
+    /// Accumulated forces to apply to each particle in the next update.
+    private float[] mXForce;
+    private float[] mYForce;
+
+    /// Mass of each particle.
+    private float[] mMass;
+
+    /// Uniform scale of each particle.
+    private float[] mScale;
+
+    /// Time each particle has spent exploding.
+    private float[] mTime;
+
+    /// Current state of each particle.
+    private byte[] mState;
+
+    /// Current texture clip of each particle.
+    private byte[] mClip;
+
+    /// Initialise texture and explosion properties.
+    /// \param texture the texture to use to display particles.
+    /// \param explodeDuration how long it takes a particle to explode.
+    /// \param capacity the number of particles to allocate space for initially.
+    public ParticleStore(Texture texture, float explodeDuration, int capacity) {
+
+        mTexture = texture;
+
+        int explodeStart = 2;
+        int explodeEnd = texture.getClipCount() - 1;
+        mExplosion = new Animation(explodeStart, explodeEnd, explodeDuration);
+
+        // Use smaller out of width and height of each clip to define radius.
+        mClipRadius = new float[texture.getClipCount()];
+        for (int i = 0; i < mClipRadius.length; ++i) {
+
+            mClipRadius[i] = Math.min(texture.getWidth(i), texture.getHeight(i)) / 2f;
+
+        }
+
+        mCount = 0;
+        capacity = Math.max(capacity, 1);
+        mX = new float[capacity];
+        mY = new float[capacity];
+        mPreviousX = new float[capacity];
+        mPreviousY = new float[capacity];
+        mXVelocity = new float[capacity];
+        mYVelocity = new float[capacity];
+        mXForce = new float[capacity];
+        mYForce = new float[capacity];
+        mMass = new float[capacity];
+        mScale = new float[capacity];
+        mTime = new float[capacity];
+        mState = new byte[capacity];
+        mClip = new byte[capacity];
+
+    }
+
+    /// Get the number of particles in the store.
+    /// \return the number of particles in the store.
+    public int size() {
+
+        return mCount;
+
+    }
+
+    /// Check whether the store has no particles.
+    /// \return whether the store is empty.
+    public boolean isEmpty() {
+
+        return mCount == 0;
+
+    }
+
+    /// Remove all particles from the store.
+    public void clear() {
+
+        mCount = 0;
+
+    }
+
+    /// Add a new flying particle to the store.
+    /// \param x x coordinate of the particle's translation.
+    /// \param y y coordinate of the particle's translation.
+    /// \param xVelocity initial velocity of the particle on the x axis.
+    /// \param yVelocity initial velocity of the particle on the y axis.
+    /// \param mass the mass of the particle.
+    /// \param scale the uniform scale of the particle.
+    /// \return the index of the new particle.
+    public int add(float x, float y, float xVelocity, float yVelocity, float mass, float scale) {
+
+        if (mCount == mX.length) {
+
+            grow();
+
+        }
+
+        int i = mCount++;
+        mX[i] = x;
+        mY[i] = y;
+        mPreviousX[i] = x;
+        mPreviousY[i] = y;
+        mXVelocity[i] = xVelocity;
+        mYVelocity[i] = yVelocity;
+        mXForce[i] = 0f;
+        mYForce[i] = 0f;
+        mMass[i] = mass;
+        mScale[i] = scale;
+        mTime[i] = 0f;
+        mState[i] = FLYING;
+        mClip[i] = FLYING_CLIP;
+        return i;
+
+    }
+
+    /// Store the current translation of every particle as the previous update's 
+    /// translation so that rendering can interpolate between the two.
+    public void storePrevious() {
+
+        System.arraycopy(mX, 0, mPreviousX, 0, mCount);
+        System.arraycopy(mY, 0, mPreviousY, 0, mCount);
+
+    }
+
+    /// Get the translation of a particle on the x axis.
+    /// \param i index of the particle.
+    /// \return the translation of the particle on the x axis.
+    public float getXTranslation(int i) {
+
+        return mX[i];
+
+    }
+
+    /// Get the translation of a particle on the y axis.
+    /// \param i index of the particle.
+    /// \return the translation of the particle on the y axis.
+    public float getYTranslation(int i) {
+
+        return mY[i];
+
+    }
+
+    /// Get the velocity of a particle on the x axis.
+    /// \param i index of the particle.
+    /// \return the velocity of the particle on the x axis.
+    public float getXVelocity(int i) {
+
+        return mXVelocity[i];
+
+    }
+
+    /// Get the velocity of a particle on the y axis.
+    /// \param i index of the particle.
+    /// \return the velocity of the particle on the y axis.
+    public float getYVelocity(int i) {
+
+        return mYVelocity[i];
+
+    }
+
+    /// Get the mass of a particle.
+    /// \param i index of the particle.
+    /// \return the mass of the particle.
+    public float getMass(int i) {
+
+        return mMass[i];
+
+    }
+
+    /// Get the scale of a particle.
+    /// \param i index of the particle.
+    /// \return the uniform scale of the particle.
+    public float getScale(int i) {
+
+        return mScale[i];
+
+    }
+
+    /// Get the collision radius of a particle based on its current clip and scale.
+    /// \param i index of the particle.
+    /// \return current collision radius of the particle.
+    public float getRadius(int i) {
+
+        return mClipRadius[mClip[i]] * mScale[i];
+
+    }
+
+    /// Check whether a particle is currently flying.
+    /// \param i index of the particle.
+    /// \return whether the particle is currently flying.
+    public boolean isFlying(int i) {
+
+        return mState[i] == FLYING;
+
+    }
+
+    /// Check whether a particle is currently exploding.
+    /// \param i index of the particle.
+    /// \return whether the particle is currently exploding.
+    public boolean isExploding(int i) {
+
+        return mState[i] == EXPLODING;
+
+    }
+
+    /// Check whether a particle is currently destroyed.
+    /// \param i index of the particle.
+    /// \return whether the particle is currently destroyed.
+    public boolean isDestroyed(int i) {
+
+        return mState[i] == DESTROYED;
+
+    }
+
+    /// Explode a particle (set its state to exploding).
+    /// \param i index of the particle.
+    public void explode(int i) {
+
+        mState[i] = EXPLODING;
+
+    }
+
+    /// Check if a particle collides with a collidable object.
+    /// \param i index of the particle.
+    /// \param other the object to check collision with.
+    /// \return whether the particle and other collide.
+    public boolean collides(int i, CollidableObject other) {
+
+        return other.collides(mX[i], mY[i], getRadius(i));
+
+    }
+
+    /// Apply a force to a particle.
+    /// \param i index of the particle.
+    /// \param x x component of the force to be applied.
+    /// \param y y component of the force to be applied.
+    public void applyForce(int i, float x, float y) {
+
+        mXForce[i] += x;
+        mYForce[i] += y;
+
+    }
+
+    /// Update a range of particles based on their state. Destroyed particles are
+    /// kept until removeDestroyed() is called so that ranges can be updated concurrently.
+    /// \param from index of the first particle to update.
+    /// \param to index after the last particle to update.
+    /// \param delta time passed since last update.
+    public void update(int from, int to, float delta) {
+
+        // Forces are tuned as impulses per reference step, so scale them to the
+        // actual step so that the update rate does not change how particles move.
+        float forceScale = delta / FORCE_STEP;
+        for (int i = from; i < to; ++i) {
+
+            // If the particle is exploding, update its explosion animation.
+            if (mState[i] == EXPLODING) {
+
+                mTime[i] += delta;
+                mClip[i] = (byte)mExplosion.getClip(mTime[i]);
+
+                // Destroy particle when animation finishes.
+                if (mTime[i] >= mExplosion.getDuration()) {
+
+                    mState[i] = DESTROYED;
+
+                }
+
+            // If the particle is flying the apply physics as normal.
+            } else if (mState[i] == FLYING) {
+
+                // Add acceleration to velocity.
+                // Use accumulated forces and mass to calculate acceleration.
+                mXVelocity[i] += mXForce[i] / mMass[i] * forceScale;
+                mYVelocity[i] += mYForce[i] / mMass[i] * forceScale;
+                mX[i] += mXVelocity[i] * delta;
+                mY[i] += mYVelocity[i] * delta;
+
+                // Reset accumulator once finished.
+                mXForce[i] = 0f;
+                mYForce[i] = 0f;
+
+            }
+
+        }
+
+    }
+
+    /// Render each particle.
+    /// \param snapshot snapshot to record rendering into.
+    public void render(Snapshot snapshot) {
+
+        for (int i = 0; i < mCount; ++i) {
+
+            snapshot.addSprite(mTexture, mClip[i], mX[i], mY[i], 0f, mScale[i], mScale[i]);
+            snapshot.setPrevious(mPreviousX[i], mPreviousY[i], 0f, mScale[i], mScale[i]);
+
+        }
+
+    }
+
+    /// Remove destroyed particles, keeping remaining particles in order.
+    public void removeDestroyed() {
+
+        int kept = 0;
+        for (int i = 0; i < mCount; ++i) {
+
+            if (mState[i] != DESTROYED) {
+
+                if (kept != i) {
+
+                    mX[kept] = mX[i];
+                    mY[kept] = mY[i];
+                    mPreviousX[kept] = mPreviousX[i];
+                    mPreviousY[kept] = mPreviousY[i];
+                    mXVelocity[kept] = mXVelocity[i];
+                    mYVelocity[kept] = mYVelocity[i];
+                    mXForce[kept] = mXForce[i];
+                    mYForce[kept] = mYForce[i];
+                    mMass[kept] = mMass[i];
+                    mScale[kept] = mScale[i];
+                    mTime[kept] = mTime[i];
+                    mState[kept] = mState[i];
+                    mClip[kept] = mClip[i];
+
+                }
+                ++kept;
+
+            }
+
+        }
+        mCount = kept;
+
+    }
+
+    /// Double the capacity of the store.
+    private void grow() {
+
+        int capacity = mX.length * 2;
+        mX = Arrays.copyOf(mX, capacity);
+        mY = Arrays.copyOf(mY, capacity);
+        mPreviousX = Arrays.copyOf(mPreviousX, capacity);
+        mPreviousY = Arrays.copyOf(mPreviousY, capacity);
+        mXVelocity = Arrays.copyOf(mXVelocity, capacity);
+        mYVelocity = Arrays.copyOf(mYVelocity, capacity);
+        mXForce = Arrays.copyOf(mXForce, capacity);
+        mYForce = Arrays.copyOf(mYForce, capacity);
+        mMass = Arrays.copyOf(mMass, capacity);
+        mScale = Arrays.copyOf(mScale, capacity);
+        mTime = Arrays.copyOf(mTime, capacity);
+        mState = Arrays.copyOf(mState, capacity);
+        mClip = Arrays.copyOf(mClip, capacity);
+
+    }
+
+}
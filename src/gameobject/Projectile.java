@@ -36,7 +36,10 @@ public abstract class Projectile extends CollidableObject {
     private float mTime;
 
     /// Flight velocity for flying towards target.
-    private PVector mFlightVelocity;
+    private final PVector mFlightVelocity;
+
+    /// Force added to the force manager by the projectile's explosion.
+    private ForceGenerator mForce;
 
     /// Initialise projectile properties.
     /// \param texture to use for projectile.
@@ -55,6 +58,8 @@ public abstract class Projectile extends CollidableObject {
         mFlightSpeed = flightSpeed;
         mFlightDuration = 0f;
         mTime = 0f;
+        mFlightVelocity = new PVector(0f, 0f);
+        mForce = null;
 
         int startClip = 1;
         setClip(startClip);
@@ -64,6 +69,19 @@ public abstract class Projectile extends CollidableObject {
 
     }
 
+    /// Reset the projectile so that it can be fired again.
+    public void reset() {
+
+        mState = State.IDLE;
+        mFlightDuration = 0f;
+        mTime = 0f;
+        mForce = null;
+        setRotation(0f);
+        setClip(1);
+        mExplosion.reset();
+
+    }
+
     /// Check if projectile is destroyed.
     /// \return whether the projectile is destroyed.
     public boolean isDestroyed() {
@@ -98,9 +116,9 @@ public abstract class Projectile extends CollidableObject {
             // Calculate flying velocity and flight duration to reach
             // target using specified flight speed.
             mState = State.FLYING;
-            PVector toTarget = PVector.sub(target, getTranslation());
-            mFlightDuration = toTarget.mag() / mFlightSpeed;
-            mFlightVelocity = toTarget.setMag(mFlightSpeed);
+            mFlightVelocity.set(target.x - getXTranslation(), target.y - getYTranslation());
+            mFlightDuration = mFlightVelocity.mag() / mFlightSpeed;
+            mFlightVelocity.setMag(mFlightSpeed);
 
         }
 
@@ -113,7 +131,8 @@ public abstract class Projectile extends CollidableObject {
         mExplosion.reset();
 
         // Add explosion force to manager.
-        mFManager.addForce(createForce());
+        mForce = createForce();
+        mFManager.addForce(mForce);
 
     }
 
@@ -172,10 +191,12 @@ public abstract class Projectile extends CollidableObject {
         mExplosion.update(delta);
         setClip(mExplosion.getClip());
 
-        // If animation has finished, destroy projectile.
+        // If animation has finished, destroy projectile and deactivate its force
+        // so that it is not applied if the projectile is reused.
         if (mExplosion.isFinished()) {
 
             mState = State.DESTROYED;
+            mForce.deactivate();
 
         }
 
@@ -1,7 +1,7 @@
 package gameobject;
 
-import processing.core.PApplet;
-import processing.core.PConstants;
+import render.Layer;
+import render.Snapshot;
 
 /// A game object that displays text.
 public class TextObject extends GameObject {
@@ -15,6 +15,19 @@ public class TextObject extends GameObject {
     /// The text displayed.
     String mText;
 
+    /// Number of times the text or its transformation has changed.
+    private int mRevision;
+
+    /// Cached rendering of the text, null if the text is rendered every frame.
+    private Layer mLayer;
+
+    /// Transformation the text was last rendered with.
+    private float mRenderedX;
+    private float mRenderedY;
+    private float mRenderedRotation;
+    private float mRenderedXScale;
+    private float mRenderedYScale;
+
     /// Initialise with size and orientation.
     /// \param size text size to use.
     /// \param centred whether or not to use centred orientation.
@@ -22,7 +35,32 @@ public class TextObject extends GameObject {
 
         mSize = size;
         mCentred = centred;
-        mText = new String();
+        mText = "";
+        mRevision = 0;
+        mLayer = null;
+        mRenderedX = 0f;
+        mRenderedY = 0f;
+        mRenderedRotation = 0f;
+        mRenderedXScale = 1f;
+        mRenderedYScale = 1f;
+
+    }
+
+    /// Set whether the text is cached in an offscreen layer and only drawn again when
+    /// it changes. Each layer holds its own offscreen image, so only text that lasts
+    /// across state changes should be cached.
+    /// \param cached whether to cache the text.
+    public void setCached(boolean cached) {
+
+        if (!cached) {
+
+            mLayer = null;
+
+        } else if (mLayer == null) {
+
+            mLayer = new Layer();
+
+        }
 
     }
 
@@ -30,34 +68,60 @@ public class TextObject extends GameObject {
     /// \param text the text to display.
     public void setText(String text) {
 
-        mText = new String(text);
+        if (!text.equals(mText)) {
+
+            mText = text;
+            ++mRevision;
+
+        }
 
     }
 
     /// Render the text.
-    /// \param core Processing core to use for rendering.
-    public void render(PApplet core) {
+    /// \param snapshot snapshot to record rendering into.
+    public void render(Snapshot snapshot) {
 
-        // Align text.
-        if (mCentred) {
+        if (mLayer == null) {
 
-            core.textAlign(PConstants.CENTER, PConstants.CENTER);
+            addText(snapshot);
 
         } else {
 
-            core.textAlign(PConstants.LEFT, PConstants.TOP);
+            // Cached text is only drawn again if it has changed or moved.
+            if (mRenderedX != getXTranslation() ||
+                mRenderedY != getYTranslation() ||
+                mRenderedRotation != getRotation() ||
+                mRenderedXScale != getXScale() ||
+                mRenderedYScale != getYScale()) {
+
+                mRenderedX = getXTranslation();
+                mRenderedY = getYTranslation();
+                mRenderedRotation = getRotation();
+                mRenderedXScale = getXScale();
+                mRenderedYScale = getYScale();
+                ++mRevision;
+
+            }
+            snapshot.beginLayer(mLayer, mRevision);
+            addText(snapshot);
+            snapshot.endLayer();
 
         }
-        
-        // Set text size and colour.
-        core.textSize(mSize);
-        core.fill(0f, 0f, 0f);
-
-        // Apply the game object's transformation then draw the text.
-        core.pushMatrix();
-        applyTransform(core);
-        core.text(mText, 0f, 0f);
-        core.popMatrix();
+
+    }
+
+    /// Record the text with the game object's transformation.
+    /// \param snapshot snapshot to record rendering into.
+    private void addText(Snapshot snapshot) {
+
+        snapshot.addText(mText, 
+                         mSize, 
+                         mCentred, 
+                         getXTranslation(), 
+                         getYTranslation(), 
+                         getRotation(), 
+                         getXScale(), 
+                         getYScale());
 
     }
 
@@ -2,7 +2,7 @@ package gameobject;
 
 import processing.core.PImage;
 import processing.core.PVector;
-import processing.core.PApplet;
+import render.Snapshot;
 import texture.Texture;
 
 /// A game object that displays a texture.
@@ -14,38 +14,47 @@ public class TextureObject extends GameObject {
     /// The current clip index used for drawing the texture.
     private int mClipIndex;
 
+    /// Number of times the clip has changed.
+    private int mRevision;
+
     /// Initialise texture.
     /// \param texture the texture to use for displaying this object.
     public TextureObject(Texture texture) {
 
         mTexture = texture;
         mClipIndex = 0;
+        mRevision = 0;
 
     }
 
-    /// Render the texture using the object's transformation.
-    /// \param core Processing core to use for rendering.
-    public void render(PApplet core) {
+    /// Get the number of times the clip has changed, so that cached rendering of 
+    /// objects that only change clip can tell when to render again.
+    /// \return the object's revision.
+    public int getRevision() {
 
-        // Apply game object's current transformation then render texture 
-        // using current clip.
-        core.pushMatrix();
-        applyTransform(core);
-        mTexture.render(core, mClipIndex);
-        core.popMatrix();
+        return mRevision;
 
     }
 
-    
-    /// Apply translation to image (clipped) centre followed by game object's transformation.
-    /// \param core Processing core to use to apply transformation.
-    public void applyTransform(PApplet core) {
-        
-        // Include transformation to origin so that image is centred on game object's
-        // transformation.
-        super.applyTransform(core);
-        core.translate(-mTexture.getWidth(mClipIndex) / 2f, 
-                       -mTexture.getHeight(mClipIndex) / 2f);
+    /// Render the texture using the object's transformation.
+    /// \param snapshot snapshot to record rendering into.
+    public void render(Snapshot snapshot) {
+
+        // Record texture using current clip, centred on game object's 
+        // current transformation, along with previous transformation to 
+        // interpolate from.
+        snapshot.addSprite(mTexture, 
+                           mClipIndex, 
+                           getXTranslation(), 
+                           getYTranslation(), 
+                           getRotation(), 
+                           getXScale(), 
+                           getYScale());
+        snapshot.setPrevious(getPreviousXTranslation(),
+                             getPreviousYTranslation(),
+                             getPreviousRotation(),
+                             getPreviousXScale(),
+                             getPreviousYScale());
 
     }
 
@@ -61,7 +70,12 @@ public class TextureObject extends GameObject {
     /// \param clip the index of the clip to use.
     protected void setClip(int clip) {
 
-        mClipIndex = clip;
+        if (clip != mClipIndex) {
+
+            mClipIndex = clip;
+            ++mRevision;
+
+        }
 
     }
 
@@ -0,0 +1,46 @@
+package pool;
+
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/// Pool of reusable objects. Objects are created by a factory only when
+/// there are no freed objects available to reuse.
+public class Pool<T> {
+
+    /// Factory for creating objects when the pool is empty.
+    private final Supplier<T> mFactory;
+
+    /// Objects available for reuse.
+    private final ArrayList<T> mFree;
+
+    /// Initialise pool with factory.
+    /// \param factory factory for creating new objects.
+    public Pool(Supplier<T> factory) {
+
+        mFactory = factory;
+        mFree = new ArrayList<T>();
+
+    }
+
+    /// Get an object from the pool, creating one if none are free.
+    /// \return an object that is not in use.
+    public T obtain() {
+
+        if (mFree.isEmpty()) {
+
+            return mFactory.get();
+
+        }
+        return mFree.remove(mFree.size() - 1);
+
+    }
+
+    /// Return an object to the pool so that it can be reused.
+    /// \param object the object that is no longer in use.
+    public void free(T object) {
+
+        mFree.add(object);
+
+    }
+
+}
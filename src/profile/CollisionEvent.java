@@ -0,0 +1,27 @@
+package profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/// Flight recorder event for a check for particles colliding with a circle, such as
+/// a projectile or city.
+@Name("particlecommand.Collision")
+@Label("Collision Check")
+@Description("A check for particles colliding with a circle, such as a projectile or city.")
+@Category("Particle Command")
+@StackTrace(false)
+public class CollisionEvent extends Event {
+
+    /// Radius of the circle checked.
+    @Label("Radius")
+    public float radius;
+
+    /// Number of flying particles found colliding.
+    @Label("Hits")
+    public int hits;
+
+}
@@ -0,0 +1,292 @@
+package profile;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/// Times sections of each simulation step and frame, keeping a rolling window of the
+/// most recent samples for each section to report their median, 99th percentile and
+/// maximum. Timing does nothing but check a flag while the profiler is disabled.
+/// Samples should only be recorded and read on the simulation thread. A single other
+/// thread, such as the drawing thread, can post samples to be recorded there.
+public class Profiler {
+
+    /// Sections that can be timed.
+    public static final int STEP = 0;
+    public static final int PARTICLES = 1;
+    public static final int FORCES = 2;
+    public static final int MISSILES = 3;
+    public static final int CITIES = 4;
+    public static final int COLLISIONS = 5;
+    public static final int RECORD = 6;
+    public static final int DRAW = 7;
+
+    /// Name of each section.
+    private static final String[] NAMES = 
+        {"step", "particles", "forces", "missiles", "cities", "collisions", "record", "draw"};
+
+    /// Number of recent samples kept for each section.
+    private static final int WINDOW = 512;
+
+    /// Number of posted samples that can wait to be recorded, a power of two.
+    private static final int POSTED = 64;
+
+    /// Number of step samples between rebuilding the summary.
+    private static final int SUMMARY_INTERVAL = 50;
+
+    /// Recent samples of each section in nanoseconds.
+    private final long[][] mSamples;
+
+    /// Index of the next sample to overwrite for each section.
+    private final int[] mNext;
+
+    /// Number of samples stored for each section.
+    private final int[] mCount;
+
+    /// Sorted copy of a section's samples used when reporting.
+    private final long[] mSorted;
+
+    /// Whether sections are being timed.
+    private boolean mEnabled;
+
+    /// Sections and samples posted from another thread, waiting to be recorded.
+    private final int[] mPostedSections;
+    private final long[] mPostedSamples;
+
+    /// Number of samples ever posted and ever recorded from the posted samples.
+    /// Only the posting thread advances the first and only the simulation thread
+    /// advances the second.
+    private final AtomicInteger mPostedEnd;
+    private final AtomicInteger mPostedStart;
+
+    /// Last summary built, null until first built.
+    private String mSummary;
+
+    /// Step samples recorded since the summary was built.
+    private int mSummaryAge;
+
+    /// Total game time dropped instead of simulated, in seconds.
+    private float mDroppedTime;
+
+    /// Speed of game time relative to real time.
+    private float mTimeScale;
+
+    /// Initialise empty sample windows.
+    public Profiler() {
+
+        mSamples = new long[NAMES.length][WINDOW];
+        mNext = new int[NAMES.length];
+        mCount = new int[NAMES.length];
+        mSorted = new long[WINDOW];
+        mEnabled = false;
+        mPostedSections = new int[POSTED];
+        mPostedSamples = new long[POSTED];
+        mPostedEnd = new AtomicInteger();
+        mPostedStart = new AtomicInteger();
+        mSummary = null;
+        mSummaryAge = 0;
+        mDroppedTime = 0f;
+        mTimeScale = 1f;
+
+    }
+
+    /// Check whether sections are being timed.
+    /// \return whether the profiler is enabled.
+    public boolean isEnabled() {
+
+        return mEnabled;
+
+    }
+
+    /// Set whether sections are timed.
+    /// \param enabled whether to enable the profiler.
+    public void setEnabled(boolean enabled) {
+
+        mEnabled = enabled;
+
+    }
+
+    /// Set how game time is keeping up with real time, reported with the timings.
+    /// \param droppedTime total game time dropped instead of simulated, in seconds.
+    /// \param timeScale speed of game time relative to real time.
+    public void setClock(float droppedTime, float timeScale) {
+
+        mDroppedTime = droppedTime;
+        mTimeScale = timeScale;
+
+    }
+
+    /// Start timing a section.
+    /// \return the start time to pass to stop(), 0 if disabled.
+    public long start() {
+
+        return mEnabled ? System.nanoTime() : 0L;
+
+    }
+
+    /// Finish timing a section and record the time taken.
+    /// \param section the section being timed.
+    /// \param start the start time returned by start().
+    public void stop(int section, long start) {
+
+        if (mEnabled) {
+
+            record(section, System.nanoTime() - start);
+
+        }
+
+    }
+
+    /// Record a sample for a section, replacing the oldest if the window is full.
+    /// Samples posted from another thread are recorded first.
+    /// \param section the section the sample is for.
+    /// \param nanos the time taken in nanoseconds.
+    public void record(int section, long nanos) {
+
+        recordPosted();
+        store(section, nanos);
+
+    }
+
+    /// Post a sample from another thread to be recorded on the simulation thread,
+    /// dropping it if too many samples are already waiting.
+    /// \param section the section the sample is for.
+    /// \param nanos the time taken in nanoseconds.
+    public void post(int section, long nanos) {
+
+        int end = mPostedEnd.get();
+        if (end - mPostedStart.get() < POSTED) {
+
+            mPostedSections[end & (POSTED - 1)] = section;
+            mPostedSamples[end & (POSTED - 1)] = nanos;
+            mPostedEnd.set(end + 1);
+
+        }
+
+    }
+
+    /// Get a percentile of a section's recent samples.
+    /// \param section the section to report.
+    /// \param percentile the percentile from 0 to 1.
+    /// \return the sample at the percentile in nanoseconds, 0 if there are no samples.
+    public long getPercentile(int section, float percentile) {
+
+        int count = mCount[section];
+        if (count == 0) {
+
+            return 0L;
+
+        }
+        System.arraycopy(mSamples[section], 0, mSorted, 0, count);
+        Arrays.sort(mSorted, 0, count);
+        int index = Math.min((int)(percentile * count), count - 1);
+        return mSorted[index];
+
+    }
+
+    /// Get the longest of a section's recent samples.
+    /// \param section the section to report.
+    /// \return the maximum sample in nanoseconds, 0 if there are no samples.
+    public long getMax(int section) {
+
+        long max = 0L;
+        for (int i = 0; i < mCount[section]; ++i) {
+
+            max = Math.max(max, mSamples[section][i]);
+
+        }
+        return max;
+
+    }
+
+    /// Get a line of text for each section reporting its recent samples, followed by
+    /// the time dropped and the time scale. The report is only rebuilt after several
+    /// steps so that asking for it every frame costs little.
+    /// \return the report in milliseconds.
+    public String summary() {
+
+        recordPosted();
+        if (mSummary == null || mSummaryAge >= SUMMARY_INTERVAL) {
+
+            mSummary = buildSummary();
+            mSummaryAge = 0;
+
+        }
+        return mSummary;
+
+    }
+
+    /// Write the report for each section to a CSV file.
+    /// \param path path of the file to write.
+    public void writeCsv(String path) throws IOException {
+
+        recordPosted();
+        try (PrintWriter out = new PrintWriter(path)) {
+
+            out.println("section,samples,p50_ms,p99_ms,max_ms");
+            for (int i = 0; i < NAMES.length; ++i) {
+
+                out.println(NAMES[i] + "," + 
+                            mCount[i] + "," + 
+                            getPercentile(i, 0.5f) / 1e6f + "," + 
+                            getPercentile(i, 0.99f) / 1e6f + "," + 
+                            getMax(i) / 1e6f);
+
+            }
+
+        }
+
+    }
+
+    /// Store a sample for a section, replacing the oldest if the window is full.
+    /// \param section the section the sample is for.
+    /// \param nanos the time taken in nanoseconds.
+    private void store(int section, long nanos) {
+
+        mSamples[section][mNext[section]] = nanos;
+        mNext[section] = (mNext[section] + 1) % WINDOW;
+        mCount[section] = Math.min(mCount[section] + 1, WINDOW);
+        if (section == STEP) {
+
+            ++mSummaryAge;
+
+        }
+
+    }
+
+    /// Store every sample posted from another thread.
+    private void recordPosted() {
+
+        int start = mPostedStart.get();
+        int end = mPostedEnd.get();
+        while (start != end) {
+
+            store(mPostedSections[start & (POSTED - 1)], mPostedSamples[start & (POSTED - 1)]);
+            ++start;
+
+        }
+        mPostedStart.set(start);
+
+    }
+
+    /// Build a line of text for each section reporting its recent samples.
+    /// \return the report in milliseconds.
+    private String buildSummary() {
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < NAMES.length; ++i) {
+
+            text.append(String.format("%-9s p50 %6.3f  p99 %6.3f  max %6.3f\n", 
+                                      NAMES[i], 
+                                      getPercentile(i, 0.5f) / 1e6f, 
+                                      getPercentile(i, 0.99f) / 1e6f, 
+                                      getMax(i) / 1e6f));
+
+        }
+        text.append(String.format("dropped %.3fs  time scale %.2f\n", mDroppedTime, mTimeScale));
+        return text.toString();
+
+    }
+
+}
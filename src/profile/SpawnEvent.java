@@ -0,0 +1,26 @@
+package profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/// Flight recorder event for a burst of particles spawned during an update.
+@Name("particlecommand.Spawn")
+@Label("Particle Spawn")
+@Description("A burst of particles spawned during an update.")
+@Category("Particle Command")
+@StackTrace(false)
+public class SpawnEvent extends Event {
+
+    /// Number of particles spawned.
+    @Label("Spawned")
+    public int spawned;
+
+    /// Number of particles still to spawn in the wave.
+    @Label("Remaining")
+    public int remaining;
+
+}
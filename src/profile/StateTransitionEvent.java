@@ -0,0 +1,35 @@
+package profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/// Flight recorder event for the scene moving to a different state, such as a wave
+/// ending or starting.
+@Name("particlecommand.StateTransition")
+@Label("State Transition")
+@Description("The scene moved to a different state, such as a wave ending or starting.")
+@Category("Particle Command")
+@StackTrace(false)
+public class StateTransitionEvent extends Event {
+
+    /// Name of the state moved from.
+    @Label("From")
+    public String from;
+
+    /// Name of the state moved to.
+    @Label("To")
+    public String to;
+
+    /// Wave at the time of the transition.
+    @Label("Wave")
+    public int wave;
+
+    /// Score at the time of the transition.
+    @Label("Score")
+    public int score;
+
+}
@@ -0,0 +1,30 @@
+package profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/// Flight recorder event for a fixed timestep update of the scene.
+@Name("particlecommand.Step")
+@Label("Simulation Step")
+@Description("A fixed timestep update of the scene.")
+@Category("Particle Command")
+@StackTrace(false)
+public class StepEvent extends Event {
+
+    /// Index of the step.
+    @Label("Step")
+    public int step;
+
+    /// Number of particles after the step.
+    @Label("Particles")
+    public int particles;
+
+    /// Number of forces active after the step.
+    @Label("Forces")
+    public int forces;
+
+}
@@ -1,19 +1,65 @@
 package random;
 
 import processing.core.PVector;
-import java.util.Random;
+import java.util.SplittableRandom;
 import rect.Rect;
 
-/// Class managing random operations.
+/// Class managing random operations. Each randomiser is a stream of random numbers
+/// determined by its seed, so the same seed always produces the same numbers.
+/// Independent streams can be created for each consumer so that they neither share
+/// state between threads nor change each other's numbers.
 public class Randomiser {
 
+    /// Seed the randomiser was created with.
+    private final long mSeed;
+
     /// Random number generator.
-    private static Random mRandom;
+    private final SplittableRandom mRandom;
+
+    /// Initialise random number generator with a seed.
+    /// \param seed the seed determining the numbers generated.
+    public Randomiser(long seed) {
+
+        mSeed = seed;
+        mRandom = new SplittableRandom(seed);
+
+    }
+
+    /// Initialise with an existing generator.
+    /// \param seed the seed the generator was derived from.
+    /// \param random the generator to use.
+    private Randomiser(long seed, SplittableRandom random) {
+
+        mSeed = seed;
+        mRandom = random;
+
+    }
+
+    /// Get the seed the randomiser was created with.
+    /// \return the randomiser's seed.
+    public long getSeed() {
+
+        return mSeed;
+
+    }
+
+    /// Create an independent stream for a named consumer. The stream depends only on
+    /// this randomiser's seed and the name, not on numbers already generated.
+    /// \param name name of the consumer using the stream.
+    /// \return a new randomiser for the consumer.
+    public Randomiser stream(String name) {
+
+        // Mix name into seed, the generator scrambles the result further.
+        long seed = mSeed ^ (name.hashCode() * 0x9E3779B97F4A7C15L);
+        return new Randomiser(seed);
+
+    }
 
-    /// Initialise random number generator.
-    static {
+    /// Split off a new independent stream, advancing this one.
+    /// \return a new randomiser independent from this one.
+    public Randomiser split() {
 
-        mRandom = new Random();
+        return new Randomiser(mSeed, mRandom.split());
 
     }
 
@@ -21,9 +67,9 @@ public class Randomiser {
     /// \param min the minimum value that can be generated.
     /// \param max the maximum value that can be generated.
     /// \return a random int a least min and no more than max.
-    public static int randomInt(int min, int max) {
+    public int randomInt(int min, int max) {
 
-        return mRandom.nextInt((max - min) + 1) + min;
+        return mRandom.nextInt(min, max + 1);
 
     }
 
@@ -31,16 +77,16 @@ public class Randomiser {
     /// \param min the minimum value that can be generated.
     /// \param max the maximum value that can be generated.
     /// \return a random float a least min and no more than max.
-    public static float randomFloat(float min, float max) {
+    public float randomFloat(float min, float max) {
 
-        return min + mRandom.nextFloat() * (max - min);
+        return min + (float)mRandom.nextDouble() * (max - min);
 
     }
 
     /// Generate a random point in a rectangle.
     /// \param bounds rectangle to generate a point within.
     /// \return a random point within bounds.
-    public static PVector randomPoint(Rect bounds) {
+    public PVector randomPoint(Rect bounds) {
         
         float x = randomFloat(bounds.x, bounds.x + bounds.width);
         float y = randomFloat(bounds.y, bounds.y + bounds.height);
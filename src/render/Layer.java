@@ -0,0 +1,91 @@
+package render;
+
+import processing.core.PGraphics;
+
+/// Offscreen image caching what a group of snapshot entries drew, so that entries that
+/// rarely change are drawn with a single image until their owner's revision changes.
+/// The owner keeps the layer and records its entries between Snapshot.beginLayer()
+/// and Snapshot.endLayer(). Entries in a layer should only change along with the
+/// revision, since they are not drawn again or interpolated otherwise.
+/// The cached image is only used by the drawing thread.
+public class Layer {
+
+    /// Cached image of the layer's entries, null until first drawn.
+    private PGraphics mGraphics;
+
+    /// Position of the cached image on screen.
+    private int mX;
+    private int mY;
+
+    /// Revision of the entries in the cached image.
+    private long mRevision;
+
+    /// Whether the cached image has been drawn yet.
+    private boolean mDrawn;
+
+    /// Initialise without a cached image.
+    public Layer() {
+
+        mGraphics = null;
+        mX = 0;
+        mY = 0;
+        mRevision = 0L;
+        mDrawn = false;
+
+    }
+
+    /// Check whether the cached image holds entries of a revision.
+    /// \param revision the revision of the entries to draw.
+    /// \return whether the cached image can be drawn instead of the entries.
+    boolean isCurrent(long revision) {
+
+        return mDrawn && mRevision == revision;
+
+    }
+
+    /// Start drawing entries of a new revision into the cached image, which is only
+    /// created again if it is too small for the area.
+    /// \param target graphics the cached image will be drawn onto.
+    /// \param x x coordinate of the area on screen.
+    /// \param y y coordinate of the area on screen.
+    /// \param width width of the area.
+    /// \param height height of the area.
+    /// \param revision the revision of the entries being drawn.
+    /// \return graphics to draw the entries with, in screen coordinates.
+    PGraphics begin(PGraphics target, int x, int y, int width, int height, long revision) {
+
+        if (mGraphics == null || mGraphics.width < width || mGraphics.height < height) {
+
+            mGraphics = target.parent.createGraphics(Math.max(width, 1),
+                                                     Math.max(height, 1),
+                                                     target.parent.sketchRenderer());
+
+        }
+        mX = x;
+        mY = y;
+        mRevision = revision;
+        mDrawn = true;
+
+        mGraphics.beginDraw();
+        mGraphics.clear();
+        mGraphics.translate(-x, -y);
+        return mGraphics;
+
+    }
+
+    /// Finish drawing entries into the cached image.
+    void end() {
+
+        mGraphics.endDraw();
+
+    }
+
+    /// Draw the cached image.
+    /// \param target graphics to draw onto.
+    void draw(PGraphics target) {
+
+        target.image(mGraphics, mX, mY);
+
+    }
+
+}
@@ -0,0 +1,647 @@
+package render;
+
+import processing.core.PApplet;
+import processing.core.PConstants;
+import processing.core.PGraphics;
+import java.util.Arrays;
+import texture.Texture;
+
+/// Recording of everything that should be drawn for a frame. Objects add sprites and
+/// text with their transformation in drawing order, then the snapshot can be drawn
+/// later, possibly by a different thread to the one that recorded it. Entries can
+/// also hold their transformation from the previous update, in which case they are
+/// drawn interpolated between the two based on the time since the last update.
+/// Consecutive sprites sharing an image, either from the same texture or textures
+/// packed into the same atlas, are drawn as a batch, as a single shape of textured
+/// quads under OpenGL renderers or without matrix changes otherwise.
+/// Groups of entries that rarely change can be recorded in a layer, which caches
+/// them in an offscreen image until their revision changes.
+public class Snapshot {
+
+    /// Kinds of entry that can be recorded.
+    private static final byte SPRITE = 0;
+    private static final byte TEXT = 1;
+    private static final byte LAYER = 2;
+
+    /// Number of entries recorded.
+    private int mCount;
+
+    /// Kind of each entry.
+    private byte[] mKinds;
+
+    /// Texture of each sprite entry.
+    private Texture[] mTextures;
+
+    /// Text of each text entry.
+    private String[] mTexts;
+
+    /// Clip index of sprite entries, text size of text entries or number of entries
+    /// in layer entries.
+    private int[] mClips;
+
+    /// Layer of each layer entry.
+    private Layer[] mLayers;
+
+    /// Revision of the entries in each layer entry.
+    private long[] mRevisions;
+
+    /// Index of the layer entry being recorded, -1 if not recording a layer.
+    private int mLayerStart;
+
+    /// Whether each text entry is centred.
+    private boolean[] mCentred;
+
+    /// Translation of each entry.
+    private float[] mX;
+    private float[] mY;
+
+    /// Rotation of each entry in degrees.
+    private float[] mRotation;
+
+    /// Scale of each entry.
+    private float[] mXScale;
+    private float[] mYScale;
+
+    /// Transformation of each entry at the previous update.
+    private float[] mPreviousX;
+    private float[] mPreviousY;
+    private float[] mPreviousRotation;
+    private float[] mPreviousXScale;
+    private float[] mPreviousYScale;
+
+    /// Time that had not been simulated yet when the snapshot was recorded.
+    private float mAccumulator;
+
+    /// The fixed update timestep of the simulation that was recorded.
+    private float mStepSize;
+
+    /// System time in nanoseconds when the snapshot was recorded.
+    private long mRecordTime;
+
+    /// Interpolated transformation of the entry being drawn.
+    private float mDrawX;
+    private float mDrawY;
+    private float mDrawRotation;
+    private float mDrawXScale;
+    private float mDrawYScale;
+
+    /// Area covered by the entries of a layer being drawn.
+    private float mMinX;
+    private float mMinY;
+    private float mMaxX;
+    private float mMaxY;
+
+    /// Initialise empty snapshot.
+    public Snapshot() {
+
+        int capacity = 256;
+        mCount = 0;
+        mAccumulator = 0f;
+        mStepSize = 0f;
+        mRecordTime = 0L;
+        mKinds = new byte[capacity];
+        mTextures = new Texture[capacity];
+        mTexts = new String[capacity];
+        mClips = new int[capacity];
+        mLayers = new Layer[capacity];
+        mRevisions = new long[capacity];
+        mLayerStart = -1;
+        mCentred = new boolean[capacity];
+        mX = new float[capacity];
+        mY = new float[capacity];
+        mRotation = new float[capacity];
+        mXScale = new float[capacity];
+        mYScale = new float[capacity];
+        mPreviousX = new float[capacity];
+        mPreviousY = new float[capacity];
+        mPreviousRotation = new float[capacity];
+        mPreviousXScale = new float[capacity];
+        mPreviousYScale = new float[capacity];
+
+    }
+
+    /// Get the number of entries recorded.
+    /// \return the number of entries in the snapshot.
+    public int size() {
+
+        return mCount;
+
+    }
+
+    /// Remove all entries so that the snapshot can be recorded again.
+    public void clear() {
+
+        // Drop references so that old textures and text can be collected.
+        Arrays.fill(mTextures, 0, mCount, null);
+        Arrays.fill(mTexts, 0, mCount, null);
+        Arrays.fill(mLayers, 0, mCount, null);
+        mLayerStart = -1;
+        mCount = 0;
+
+    }
+
+    /// Set the simulation timing used to interpolate entries. Marks the snapshot as
+    /// recorded at the current time.
+    /// \param accumulator time that has not been simulated yet.
+    /// \param stepSize the fixed update timestep of the simulation.
+    public void setTiming(float accumulator, float stepSize) {
+
+        mAccumulator = accumulator;
+        mStepSize = stepSize;
+        mRecordTime = System.nanoTime();
+
+    }
+
+    /// Get how far between the previous and current update to draw entries.
+    /// Includes the time passed since the snapshot was recorded.
+    /// \return the interpolation factor from 0 (previous update) to 1 (current update).
+    public float getAlpha() {
+
+        if (mStepSize <= 0f) {
+
+            return 1f;
+
+        }
+        float time = mAccumulator + (System.nanoTime() - mRecordTime) / 1e9f;
+        return Math.min(Math.max(time / mStepSize, 0f), 1f);
+
+    }
+
+    /// Record a texture clip centred on a transformation.
+    /// \param texture the texture to draw.
+    /// \param clip the index of the clip to draw.
+    /// \param x x component of translation.
+    /// \param y y component of translation.
+    /// \param rotation rotation in degrees.
+    /// \param xScale scale on the x axis.
+    /// \param yScale scale on the y axis.
+    public void addSprite(Texture texture,
+                          int clip,
+                          float x,
+                          float y,
+                          float rotation,
+                          float xScale,
+                          float yScale) {
+
+        int i = add(SPRITE, x, y, rotation, xScale, yScale);
+        mTextures[i] = texture;
+        mClips[i] = clip;
+
+    }
+
+    /// Record text drawn at a transformation.
+    /// \param text the text to draw.
+    /// \param size text size to use.
+    /// \param centred whether or not to use centred orientation.
+    /// \param x x component of translation.
+    /// \param y y component of translation.
+    /// \param rotation rotation in degrees.
+    /// \param xScale scale on the x axis.
+    /// \param yScale scale on the y axis.
+    public void addText(String text,
+                        int size,
+                        boolean centred,
+                        float x,
+                        float y,
+                        float rotation,
+                        float xScale,
+                        float yScale) {
+
+        int i = add(TEXT, x, y, rotation, xScale, yScale);
+        mTexts[i] = text;
+        mClips[i] = size;
+        mCentred[i] = centred;
+
+    }
+
+    /// Start recording entries into a layer. Until the layer is ended, entries are 
+    /// drawn once into the layer's cached image, which is then drawn instead until 
+    /// the revision changes. Layers cannot be nested.
+    /// \param layer the layer to record into.
+    /// \param revision revision of the entries, changed whenever they change.
+    public void beginLayer(Layer layer, long revision) {
+
+        mLayerStart = add(LAYER, 0f, 0f, 0f, 1f, 1f);
+        mLayers[mLayerStart] = layer;
+        mRevisions[mLayerStart] = revision;
+
+    }
+
+    /// Finish recording entries into the current layer.
+    public void endLayer() {
+
+        mClips[mLayerStart] = mCount - mLayerStart - 1;
+        mLayerStart = -1;
+
+    }
+
+    /// Set the transformation at the previous update of the last recorded entry.
+    /// \param x x component of previous translation.
+    /// \param y y component of previous translation.
+    /// \param rotation previous rotation in degrees.
+    /// \param xScale previous scale on the x axis.
+    /// \param yScale previous scale on the y axis.
+    public void setPrevious(float x, float y, float rotation, float xScale, float yScale) {
+
+        int i = mCount - 1;
+        mPreviousX[i] = x;
+        mPreviousY[i] = y;
+        mPreviousRotation[i] = rotation;
+        mPreviousXScale[i] = xScale;
+        mPreviousYScale[i] = yScale;
+
+    }
+
+    /// Draw every entry in the order they were recorded, interpolated between
+    /// their previous and current transformation.
+    /// \param core Processing core to draw with.
+    public void draw(PApplet core) {
+
+        drawRange(core.g, 0, mCount, getAlpha());
+
+    }
+
+    /// Draw a range of entries in the order they were recorded.
+    /// \param g graphics to draw with.
+    /// \param from index of the first entry.
+    /// \param to index after the last entry.
+    /// \param alpha the interpolation factor.
+    private void drawRange(PGraphics g, int from, int to, float alpha) {
+
+        int i = from;
+        while (i < to) {
+
+            if (mKinds[i] == SPRITE) {
+
+                // Find the run of sprites sharing this sprite's image so that order
+                // is kept between different images. Textures packed into the same
+                // atlas share its image.
+                int end = i + 1;
+                while (end < to && mKinds[end] == SPRITE && 
+                       mTextures[end].getImage() == mTextures[i].getImage()) {
+
+                    ++end;
+
+                }
+
+                if (g.isGL()) {
+
+                    drawBatch(g, i, end, alpha);
+
+                } else {
+
+                    drawSprites(g, i, end, alpha);
+
+                }
+                i = end;
+
+            } else if (mKinds[i] == LAYER) {
+
+                drawLayer(g, i, alpha);
+                i += mClips[i] + 1;
+
+            } else {
+
+                interpolate(i, alpha);
+                g.pushMatrix();
+                applyTransform(g);
+                drawText(g, i);
+                g.popMatrix();
+                ++i;
+
+            }
+
+        }
+
+    }
+
+    /// Draw a layer's cached image, first drawing its entries into the image if they
+    /// have changed since it was last drawn.
+    /// \param g graphics to draw with.
+    /// \param i index of the layer entry.
+    /// \param alpha the interpolation factor.
+    private void drawLayer(PGraphics g, int i, float alpha) {
+
+        Layer layer = mLayers[i];
+        int from = i + 1;
+        int to = from + mClips[i];
+        if (to > from && !layer.isCurrent(mRevisions[i])) {
+
+            // Only cover the visible area of the entries.
+            measure(g, from, to, alpha);
+            int x = (int)Math.floor(Math.max(mMinX, 0f));
+            int y = (int)Math.floor(Math.max(mMinY, 0f));
+            int width = (int)Math.ceil(Math.min(mMaxX, g.width)) - x;
+            int height = (int)Math.ceil(Math.min(mMaxY, g.height)) - y;
+
+            PGraphics graphics = layer.begin(g, x, y, width, height, mRevisions[i]);
+            drawRange(graphics, from, to, alpha);
+            layer.end();
+
+        }
+        if (to > from) {
+
+            layer.draw(g);
+
+        }
+
+    }
+
+    /// Find the area covered by a range of entries.
+    /// \param g graphics used to measure text.
+    /// \param from index of the first entry.
+    /// \param to index after the last entry.
+    /// \param alpha the interpolation factor.
+    private void measure(PGraphics g, int from, int to, float alpha) {
+
+        mMinX = Float.MAX_VALUE;
+        mMinY = Float.MAX_VALUE;
+        mMaxX = -Float.MAX_VALUE;
+        mMaxY = -Float.MAX_VALUE;
+        for (int i = from; i < to; ++i) {
+
+            interpolate(i, alpha);
+            float width;
+            float height;
+            float left;
+            float top;
+            if (mKinds[i] == SPRITE) {
+
+                // Sprites are centred on their translation.
+                width = mTextures[i].getWidth(mClips[i]);
+                height = mTextures[i].getHeight(mClips[i]);
+                left = -0.5f;
+                top = -0.5f;
+
+            } else {
+
+                // Text is centred or hangs below and right of its translation.
+                g.textSize(mClips[i]);
+                width = g.textWidth(mTexts[i]);
+                height = g.textLeading * (mTexts[i].split("\n", -1).length);
+                left = mCentred[i] ? -0.5f : 0f;
+                top = mCentred[i] ? -0.5f : 0f;
+
+            }
+            width *= Math.abs(mDrawXScale);
+            height *= Math.abs(mDrawYScale);
+
+            // Include each corner rotated around the entry's translation.
+            float angle = PApplet.radians(mDrawRotation);
+            float cos = (float)Math.cos(angle);
+            float sin = (float)Math.sin(angle);
+            include(left * width, top * height, cos, sin);
+            include((left + 1f) * width, top * height, cos, sin);
+            include((left + 1f) * width, (top + 1f) * height, cos, sin);
+            include(left * width, (top + 1f) * height, cos, sin);
+
+        }
+
+        // Leave a pixel either side for smoothing.
+        mMinX -= 1f;
+        mMinY -= 1f;
+        mMaxX += 1f;
+        mMaxY += 1f;
+
+    }
+
+    /// Grow the measured area to include a rotated corner of the entry being measured.
+    /// \param x x offset of the corner from the entry's translation.
+    /// \param y y offset of the corner from the entry's translation.
+    /// \param cos cosine of the entry's rotation.
+    /// \param sin sine of the entry's rotation.
+    private void include(float x, float y, float cos, float sin) {
+
+        float cornerX = mDrawX + x * cos - y * sin;
+        float cornerY = mDrawY + x * sin + y * cos;
+        mMinX = Math.min(mMinX, cornerX);
+        mMinY = Math.min(mMinY, cornerY);
+        mMaxX = Math.max(mMaxX, cornerX);
+        mMaxY = Math.max(mMaxY, cornerY);
+
+    }
+
+    /// Calculate the interpolated transformation of an entry.
+    /// \param i index of the entry.
+    /// \param alpha the interpolation factor.
+    private void interpolate(int i, float alpha) {
+
+        // Take the shortest way around when interpolating rotation.
+        float turn = mRotation[i] - mPreviousRotation[i];
+        turn -= 360f * (float)Math.floor((turn + 180f) / 360f);
+
+        mDrawX = lerp(mPreviousX[i], mX[i], alpha);
+        mDrawY = lerp(mPreviousY[i], mY[i], alpha);
+        mDrawRotation = mPreviousRotation[i] + turn * alpha;
+        mDrawXScale = lerp(mPreviousXScale[i], mXScale[i], alpha);
+        mDrawYScale = lerp(mPreviousYScale[i], mYScale[i], alpha);
+
+    }
+
+    /// Apply the interpolated transformation of the entry being drawn.
+    /// \param g graphics to draw with.
+    private void applyTransform(PGraphics g) {
+
+        // Scale, rotate, then translate to match entry's transformation.
+        // (Transformations applied in opposite order that they occur due to
+        // column wise matrices use in underlying OpenGL API)
+        g.translate(mDrawX, mDrawY);
+        g.rotate(PApplet.radians(mDrawRotation));
+        g.scale(mDrawXScale, mDrawYScale);
+
+    }
+
+    /// Draw a run of sprites sharing an image as a single shape of textured quads.
+    /// Only supported by OpenGL renderers.
+    /// \param g graphics to draw with.
+    /// \param from index of the first sprite.
+    /// \param to index after the last sprite.
+    /// \param alpha the interpolation factor.
+    private void drawBatch(PGraphics g, int from, int to, float alpha) {
+
+        g.pushStyle();
+        g.noStroke();
+        g.textureMode(PConstants.IMAGE);
+        g.beginShape(PConstants.QUADS);
+        g.texture(mTextures[from].getImage());
+        for (int i = from; i < to; ++i) {
+
+            interpolate(i, alpha);
+            Texture texture = mTextures[i];
+            int clip = mClips[i];
+            float u = texture.getX(clip);
+            float v = texture.getY(clip);
+            float width = texture.getWidth(clip);
+            float height = texture.getHeight(clip);
+
+            // Transform corners of the clip centred on the sprite's translation.
+            float halfWidth = width * mDrawXScale / 2f;
+            float halfHeight = height * mDrawYScale / 2f;
+            float angle = PApplet.radians(mDrawRotation);
+            float cos = (float)Math.cos(angle);
+            float sin = (float)Math.sin(angle);
+            vertex(g, -halfWidth, -halfHeight, cos, sin, u, v);
+            vertex(g, halfWidth, -halfHeight, cos, sin, u + width, v);
+            vertex(g, halfWidth, halfHeight, cos, sin, u + width, v + height);
+            vertex(g, -halfWidth, halfHeight, cos, sin, u, v + height);
+
+        }
+        g.endShape();
+        g.popStyle();
+
+    }
+
+    /// Add a rotated corner of the sprite being drawn to the current shape.
+    /// \param g graphics to draw with.
+    /// \param x x offset of the corner from the sprite's centre.
+    /// \param y y offset of the corner from the sprite's centre.
+    /// \param cos cosine of the sprite's rotation.
+    /// \param sin sine of the sprite's rotation.
+    /// \param u x coordinate of the corner in the texture's image.
+    /// \param v y coordinate of the corner in the texture's image.
+    private void vertex(PGraphics g, float x, float y, float cos, float sin, float u, float v) {
+
+        g.vertex(mDrawX + x * cos - y * sin, mDrawY + x * sin + y * cos, u, v);
+
+    }
+
+    /// Draw a run of sprites sharing an image. Unrotated sprites are drawn directly
+    /// at their position instead of changing the transformation matrix.
+    /// \param g graphics to draw with.
+    /// \param from index of the first sprite.
+    /// \param to index after the last sprite.
+    /// \param alpha the interpolation factor.
+    private void drawSprites(PGraphics g, int from, int to, float alpha) {
+
+        for (int i = from; i < to; ++i) {
+
+            interpolate(i, alpha);
+            Texture texture = mTextures[i];
+            int clip = mClips[i];
+            if (mDrawRotation == 0f) {
+
+                float width = texture.getWidth(clip) * mDrawXScale;
+                float height = texture.getHeight(clip) * mDrawYScale;
+                g.image(texture.getClipImage(clip), 
+                           mDrawX - width / 2f, 
+                           mDrawY - height / 2f, 
+                           width, 
+                           height);
+
+            } else {
+
+                g.pushMatrix();
+                applyTransform(g);
+                drawSprite(g, i);
+                g.popMatrix();
+
+            }
+
+        }
+
+    }
+
+    /// Interpolate between two values.
+    /// \param start value when alpha is 0.
+    /// \param end value when alpha is 1.
+    /// \param alpha the interpolation factor.
+    /// \return the interpolated value.
+    private static float lerp(float start, float end, float alpha) {
+
+        return start + (end - start) * alpha;
+
+    }
+
+    /// Draw a sprite entry centred on the current transformation.
+    /// \param g graphics to draw with.
+    /// \param i index of the entry.
+    private void drawSprite(PGraphics g, int i) {
+
+        Texture texture = mTextures[i];
+        int clip = mClips[i];
+        g.translate(-texture.getWidth(clip) / 2f, -texture.getHeight(clip) / 2f);
+        texture.render(g, clip);
+
+    }
+
+    /// Draw a text entry at the current transformation.
+    /// \param g graphics to draw with.
+    /// \param i index of the entry.
+    private void drawText(PGraphics g, int i) {
+
+        // Align text.
+        if (mCentred[i]) {
+
+            g.textAlign(PConstants.CENTER, PConstants.CENTER);
+
+        } else {
+
+            g.textAlign(PConstants.LEFT, PConstants.TOP);
+
+        }
+
+        // Set text size and colour then draw the text.
+        g.textSize(mClips[i]);
+        g.fill(0f, 0f, 0f);
+        g.text(mTexts[i], 0f, 0f);
+
+    }
+
+    /// Add an entry with a transformation, growing storage if needed.
+    /// \param kind the kind of entry.
+    /// \param x x component of translation.
+    /// \param y y component of translation.
+    /// \param rotation rotation in degrees.
+    /// \param xScale scale on the x axis.
+    /// \param yScale scale on the y axis.
+    /// \return index of the new entry.
+    private int add(byte kind, float x, float y, float rotation, float xScale, float yScale) {
+
+        if (mCount == mKinds.length) {
+
+            grow();
+
+        }
+        int i = mCount++;
+        mKinds[i] = kind;
+        mX[i] = x;
+        mY[i] = y;
+        mRotation[i] = rotation;
+        mXScale[i] = xScale;
+        mYScale[i] = yScale;
+
+        // Entries are not interpolated unless a previous transformation is set.
+        mPreviousX[i] = x;
+        mPreviousY[i] = y;
+        mPreviousRotation[i] = rotation;
+        mPreviousXScale[i] = xScale;
+        mPreviousYScale[i] = yScale;
+        return i;
+
+    }
+
+    /// Double the capacity of the snapshot.
+    private void grow() {
+
+        int capacity = mKinds.length * 2;
+        mKinds = Arrays.copyOf(mKinds, capacity);
+        mTextures = Arrays.copyOf(mTextures, capacity);
+        mTexts = Arrays.copyOf(mTexts, capacity);
+        mClips = Arrays.copyOf(mClips, capacity);
+        mLayers = Arrays.copyOf(mLayers, capacity);
+        mRevisions = Arrays.copyOf(mRevisions, capacity);
+        mCentred = Arrays.copyOf(mCentred, capacity);
+        mX = Arrays.copyOf(mX, capacity);
+        mY = Arrays.copyOf(mY, capacity);
+        mRotation = Arrays.copyOf(mRotation, capacity);
+        mXScale = Arrays.copyOf(mXScale, capacity);
+        mYScale = Arrays.copyOf(mYScale, capacity);
+        mPreviousX = Arrays.copyOf(mPreviousX, capacity);
+        mPreviousY = Arrays.copyOf(mPreviousY, capacity);
+        mPreviousRotation = Arrays.copyOf(mPreviousRotation, capacity);
+        mPreviousXScale = Arrays.copyOf(mPreviousXScale, capacity);
+        mPreviousYScale = Arrays.copyOf(mPreviousYScale, capacity);
+
+    }
+
+}
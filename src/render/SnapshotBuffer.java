@@ -0,0 +1,66 @@
+package render;
+
+/// Buffered exchange of snapshots between a thread recording them and a thread
+/// drawing them. The recording and drawing snapshots are each owned by one side,
+/// with a third holding the latest published snapshot so that neither side waits
+/// for the other to finish.
+public class SnapshotBuffer {
+
+    /// Snapshot currently being recorded.
+    private Snapshot mRecording;
+
+    /// Latest published snapshot not yet taken for drawing.
+    private Snapshot mPublished;
+
+    /// Snapshot currently being drawn.
+    private Snapshot mDrawing;
+
+    /// Whether the published snapshot is newer than the drawing snapshot.
+    private boolean mFresh;
+
+    /// Initialise empty snapshots.
+    public SnapshotBuffer() {
+
+        mRecording = new Snapshot();
+        mPublished = new Snapshot();
+        mDrawing = new Snapshot();
+        mFresh = false;
+
+    }
+
+    /// Get the snapshot to record into. Only used by the recording thread.
+    /// \return the snapshot to record into.
+    public Snapshot getRecording() {
+
+        return mRecording;
+
+    }
+
+    /// Publish the recorded snapshot so it can be drawn.
+    public synchronized void publish() {
+
+        Snapshot published = mPublished;
+        mPublished = mRecording;
+        mRecording = published;
+        mFresh = true;
+
+    }
+
+    /// Get the latest published snapshot for drawing. Only used by the drawing thread.
+    /// The snapshot remains valid until the next call.
+    /// \return the latest published snapshot.
+    public synchronized Snapshot acquire() {
+
+        if (mFresh) {
+
+            Snapshot drawing = mDrawing;
+            mDrawing = mPublished;
+            mPublished = drawing;
+            mFresh = false;
+
+        }
+        return mDrawing;
+
+    }
+
+}
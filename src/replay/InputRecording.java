@@ -0,0 +1,226 @@
+package replay;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/// Recording of the input given to a scene during a session, along with the seed the
+/// scene was created with and the timestep it was updated with. Each input is stored with the index of the step it was
+/// handled before so that the session can be replayed exactly.
+public class InputRecording {
+
+    /// Kinds of input that can be recorded.
+    public static final byte LEFT_CLICK = 0;
+    public static final byte RIGHT_CLICK = 1;
+    public static final byte SPACE = 2;
+
+    /// Identifies recording files and their format version.
+    private static final int MAGIC = 0x50435250;
+    private static final int VERSION = 2;
+
+    /// Seed of the scene that was recorded.
+    private final long mSeed;
+
+    /// Timestep the scene was updated with.
+    private final float mStepSize;
+
+    /// Number of steps simulated during the session.
+    private int mLength;
+
+    /// Number of inputs recorded.
+    private int mCount;
+
+    /// Step that each input was handled before.
+    private int[] mSteps;
+
+    /// Kind of each input.
+    private byte[] mTypes;
+
+    /// Position of each click input.
+    private float[] mX;
+    private float[] mY;
+
+    /// Initialise empty recording.
+    /// \param seed seed of the scene being recorded.
+    /// \param stepSize timestep the scene is updated with.
+    public InputRecording(long seed, float stepSize) {
+
+        int capacity = 64;
+        mSeed = seed;
+        mStepSize = stepSize;
+        mLength = 0;
+        mCount = 0;
+        mSteps = new int[capacity];
+        mTypes = new byte[capacity];
+        mX = new float[capacity];
+        mY = new float[capacity];
+
+    }
+
+    /// Get the seed of the scene that was recorded.
+    /// \return the scene's seed.
+    public long getSeed() {
+
+        return mSeed;
+
+    }
+
+    /// Get the timestep the scene was updated with. Inputs are stored by step so
+    /// the session must be replayed with the same timestep.
+    /// \return the scene's timestep in seconds.
+    public float getStepSize() {
+
+        return mStepSize;
+
+    }
+
+    /// Get the number of steps simulated during the session.
+    /// \return the length of the session in steps.
+    public int getLength() {
+
+        return mLength;
+
+    }
+
+    /// Set the number of steps simulated during the session.
+    /// \param length the length of the session in steps.
+    public void setLength(int length) {
+
+        mLength = length;
+
+    }
+
+    /// Get the number of inputs recorded.
+    /// \return the number of inputs in the recording.
+    public int size() {
+
+        return mCount;
+
+    }
+
+    /// Get the step that an input was handled before.
+    /// \param i index of the input.
+    /// \return the step index of the input.
+    public int getStep(int i) {
+
+        return mSteps[i];
+
+    }
+
+    /// Get the kind of an input.
+    /// \param i index of the input.
+    /// \return the kind of input.
+    public byte getType(int i) {
+
+        return mTypes[i];
+
+    }
+
+    /// Get the x coordinate of a click input.
+    /// \param i index of the input.
+    /// \return x coordinate of the click.
+    public float getX(int i) {
+
+        return mX[i];
+
+    }
+
+    /// Get the y coordinate of a click input.
+    /// \param i index of the input.
+    /// \return y coordinate of the click.
+    public float getY(int i) {
+
+        return mY[i];
+
+    }
+
+    /// Record an input.
+    /// \param step index of the step the input was handled before.
+    /// \param type the kind of input.
+    /// \param x x coordinate of a click, ignored by other inputs.
+    /// \param y y coordinate of a click, ignored by other inputs.
+    public void add(int step, byte type, float x, float y) {
+
+        if (mCount == mSteps.length) {
+
+            int capacity = mSteps.length * 2;
+            mSteps = Arrays.copyOf(mSteps, capacity);
+            mTypes = Arrays.copyOf(mTypes, capacity);
+            mX = Arrays.copyOf(mX, capacity);
+            mY = Arrays.copyOf(mY, capacity);
+
+        }
+        mSteps[mCount] = step;
+        mTypes[mCount] = type;
+        mX[mCount] = x;
+        mY[mCount] = y;
+        ++mCount;
+
+    }
+
+    /// Write the recording to a file.
+    /// \param path path of the file to write.
+    public void write(String path) throws IOException {
+
+        try (DataOutputStream out = new DataOutputStream(
+                 new BufferedOutputStream(new FileOutputStream(path)))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(mSeed);
+            out.writeFloat(mStepSize);
+            out.writeInt(mLength);
+            out.writeInt(mCount);
+            for (int i = 0; i < mCount; ++i) {
+
+                out.writeInt(mSteps[i]);
+                out.writeByte(mTypes[i]);
+                out.writeFloat(mX[i]);
+                out.writeFloat(mY[i]);
+
+            }
+
+        }
+
+    }
+
+    /// Read a recording from a file.
+    /// \param path path of the file to read.
+    /// \return the recording in the file.
+    public static InputRecording read(String path) throws IOException {
+
+        try (DataInputStream in = new DataInputStream(
+                 new BufferedInputStream(new FileInputStream(path)))) {
+
+            // Throw exception if the file is not a recording this version can read.
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+
+                throw new IOException(path + " is not a supported input recording");
+
+            }
+
+            long seed = in.readLong();
+            InputRecording recording = new InputRecording(seed, in.readFloat());
+            recording.setLength(in.readInt());
+            int count = in.readInt();
+            for (int i = 0; i < count; ++i) {
+
+                int step = in.readInt();
+                byte type = in.readByte();
+                float x = in.readFloat();
+                float y = in.readFloat();
+                recording.add(step, type, x, y);
+
+            }
+            return recording;
+
+        }
+
+    }
+
+}
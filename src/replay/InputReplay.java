@@ -0,0 +1,60 @@
+package replay;
+
+import processing.core.PVector;
+import scene.Scene;
+
+/// Replays a recording of input into a scene, handling each input before the same
+/// step it was originally handled before.
+public class InputReplay {
+
+    /// The recording being replayed.
+    private final InputRecording mRecording;
+
+    /// Index of the next input to replay, read from other threads to check whether
+    /// the replay has finished.
+    private volatile int mNext;
+
+    /// Initialise replay from the start of a recording.
+    /// \param recording the recording to replay.
+    public InputReplay(InputRecording recording) {
+
+        mRecording = recording;
+        mNext = 0;
+
+    }
+
+    /// Check whether every input has been replayed.
+    /// \return whether the replay has finished.
+    public boolean isFinished() {
+
+        return mNext == mRecording.size();
+
+    }
+
+    /// Handle every recorded input due before the scene's next step.
+    /// \param scene the scene to replay input into.
+    public void apply(Scene scene) {
+
+        while (mNext < mRecording.size() && mRecording.getStep(mNext) <= scene.getStep()) {
+
+            byte type = mRecording.getType(mNext);
+            if (type == InputRecording.LEFT_CLICK) {
+
+                scene.handleLeftClick(new PVector(mRecording.getX(mNext), mRecording.getY(mNext)));
+
+            } else if (type == InputRecording.RIGHT_CLICK) {
+
+                scene.handleRightClick(new PVector(mRecording.getX(mNext), mRecording.getY(mNext)));
+
+            } else if (type == InputRecording.SPACE) {
+
+                scene.handleSpace();
+
+            }
+            ++mNext;
+
+        }
+
+    }
+
+}
@@ -1,12 +1,13 @@
 package scene;
 
-import processing.core.PApplet;
 import processing.core.PVector;
 import java.util.ArrayList;
 import java.util.function.Supplier;
 import texture.Texture;
 import gameobject.City;
 import random.Randomiser;
+import render.Layer;
+import render.Snapshot;
 
 /// Container for cities. Manages city destruction and restoration.
 public class CityManager {
@@ -20,11 +21,20 @@ public class CityManager {
     /// Cities to manage.
     private final City[] mCities;
 
+    /// Random numbers for choosing cities to restore.
+    private final Randomiser mRandom;
+
+    /// Cached rendering of the cities, which only change when destroyed or restored.
+    private final Layer mLayer;
+
     /// Initialise cities.
     /// \param cityFactory factory to create cities with.
-    public CityManager(Texture texture, float destructionDuration) {
+    /// \param random random numbers for choosing cities to restore.
+    public CityManager(Texture texture, float destructionDuration, Randomiser random) {
 
         mDamaged = false;
+        mRandom = random;
+        mLayer = new Layer();
 
         int totalCities = 4;
         mCityCount = totalCities;
@@ -66,7 +76,7 @@ public class CityManager {
         if (mCityCount < mCities.length) {
 
             // Choose a city at random and destroy it if it is destroyed.
-            int start = Randomiser.randomInt(0, mCities.length - 1);
+            int start = mRandom.randomInt(0, mCities.length - 1);
             City startCity = mCities[start];
             if (startCity.isDestroyed()) {
 
@@ -153,47 +163,93 @@ public class CityManager {
 
     }
 
-    /// Destroy cities that collide with a particle and 
-    /// update animation of destroyed cities.
+    /// Update animation of destroyed cities.
     /// \param delta time since last update.
-    /// \param pManager particles to check for collision.
-    public void update(float delta, ParticleManager pManager) {
+    public void update(float delta) {
+
+        for (int i = 0; i < mCities.length; ++i) {
 
-        int startCount = mCityCount;
-        mCityCount = 0;
+            mCities[i].update(delta);
+
+        }
+
+    }
+
+    /// Find cities that collide with a particle, exploding the first particle found
+    /// for each city and adding an event for it.
+    /// \param pManager particles to check for collision.
+    /// \param events collision events of the current step.
+    public void findCollisions(ParticleManager pManager, CollisionEvents events) {
 
-        // Update all cities.
         for (int i = 0; i < mCities.length; ++i) {
 
             City city = mCities[i];
-            city.update(delta, pManager);
-            if (!city.isDestroyed()) {
-                
-                ++mCityCount;
+            if (!city.isDestroyed() &&
+                pManager.query(city.getXTranslation(), city.getYTranslation(), city.getRadius()) > 0) {
+
+                int particle = pManager.getQueryResult(0);
+                pManager.getParticles().explode(particle);
+                events.add(CollisionEvents.PARTICLE_CITY, particle, city);
 
             }
 
+        }
+
+    }
+
+    /// Destroy cities that particles collided with in the current step.
+    /// \param events collision events of the current step.
+    public void handleCollisions(CollisionEvents events) {
+
+        for (long s = events.getStart(); s < events.getEnd(); ++s) {
+
+            if (events.getType(s) == CollisionEvents.PARTICLE_CITY) {
+
+                City city = (City)events.getObject(s);
+                if (!city.isDestroyed()) {
+
+                    city.destroy();
+                    --mCityCount;
+                    mDamaged = true;
+
+                }
+
+            }
 
         }
 
-        // If a city was destroyed then set damaged flag.
-        if (mCityCount < startCount) {
+    }
+
+    /// Store current city transformations for interpolation.
+    public void storePrevious() {
+
+        for (int i = 0; i < mCities.length; ++i) {
 
-            mDamaged = true;
+            mCities[i].storePrevious();
 
         }
 
     }
 
     /// Render all cities.
-    /// \param core Processing core to draw cities with.
-    public void render(PApplet core) {
+    /// \param snapshot snapshot to record rendering into.
+    public void render(Snapshot snapshot) {
+
+        // Cities only change clip so their revisions add up to a revision of them all.
+        long revision = 0L;
+        for (int i = 0; i < mCities.length; ++i) {
+
+            revision += mCities[i].getRevision();
+
+        }
 
+        snapshot.beginLayer(mLayer, revision);
         for (int i = 0; i < mCities.length; ++i) {
 
-            mCities[i].render(core);
+            mCities[i].render(snapshot);
 
         }
+        snapshot.endLayer();
 
     }
 
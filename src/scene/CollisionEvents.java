@@ -0,0 +1,171 @@
+package scene;
+
+import java.util.Arrays;
+import gameobject.CollidableObject;
+
+/// Ring buffer of the collisions found in each step, read by the managers and score
+/// logic that respond to them. Events are identified by an ever increasing sequence
+/// number and each step's events run from getStart() up to before getEnd(). The
+/// buffer only grows if a single step has more events than fit, so older steps'
+/// events are overwritten once the buffer wraps around.
+///
+/// Particle indices in events are only valid until the particles are next updated.
+public class CollisionEvents {
+
+    /// Types of collision event.
+    public static final byte PARTICLE_CITY = 0;
+    public static final byte PARTICLE_PROJECTILE = 1;
+    public static final byte PARTICLE_HOLE = 2;
+    public static final byte OUT_OF_BOUNDS = 3;
+
+    /// Type of each event.
+    private byte[] mTypes;
+
+    /// Index of the particle in each event.
+    private int[] mParticles;
+
+    /// Object the particle collided with in each event, null if out of bounds.
+    private CollidableObject[] mObjects;
+
+    /// Sequence number of the first event of the current step.
+    private long mStart;
+
+    /// Sequence number of the next event to add.
+    private long mEnd;
+
+    /// Initialise empty buffer.
+    /// \param capacity number of events the buffer starts with room for, rounded up
+    ///                 to a power of two.
+    public CollisionEvents(int capacity) {
+
+        capacity = Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1);
+        mTypes = new byte[capacity];
+        mParticles = new int[capacity];
+        mObjects = new CollidableObject[capacity];
+        mStart = 0L;
+        mEnd = 0L;
+
+    }
+
+    /// Start a new step, after which events of previous steps may be overwritten.
+    public void begin() {
+
+        mStart = mEnd;
+
+    }
+
+    /// Get the sequence number of the first event of the current step.
+    /// \return the first event's sequence number.
+    public long getStart() {
+
+        return mStart;
+
+    }
+
+    /// Get the sequence number after the last event of the current step.
+    /// \return the sequence number of the next event to be added.
+    public long getEnd() {
+
+        return mEnd;
+
+    }
+
+    /// Count the events of a type in the current step.
+    /// \param type the type of event to count.
+    /// \return the number of events of the type.
+    public int count(byte type) {
+
+        int count = 0;
+        for (long s = mStart; s < mEnd; ++s) {
+
+            if (getType(s) == type) {
+
+                ++count;
+
+            }
+
+        }
+        return count;
+
+    }
+
+    /// Add an event to the current step.
+    /// \param type the type of event.
+    /// \param particle index of the particle in the event.
+    /// \param object the object the particle collided with, null if out of bounds.
+    public void add(byte type, int particle, CollidableObject object) {
+
+        // Make room rather than overwrite events of the current step.
+        if (mEnd - mStart == mTypes.length) {
+
+            grow();
+
+        }
+
+        int i = index(mEnd);
+        mTypes[i] = type;
+        mParticles[i] = particle;
+        mObjects[i] = object;
+        ++mEnd;
+
+    }
+
+    /// Get the type of an event.
+    /// \param sequence the sequence number of the event.
+    /// \return the event's type.
+    public byte getType(long sequence) {
+
+        return mTypes[index(sequence)];
+
+    }
+
+    /// Get the particle in an event.
+    /// \param sequence the sequence number of the event.
+    /// \return index of the particle in the particle store.
+    public int getParticle(long sequence) {
+
+        return mParticles[index(sequence)];
+
+    }
+
+    /// Get the object a particle collided with in an event.
+    /// \param sequence the sequence number of the event.
+    /// \return the object collided with, null if the particle went out of bounds.
+    public CollidableObject getObject(long sequence) {
+
+        return mObjects[index(sequence)];
+
+    }
+
+    /// Get the position of an event in the buffer.
+    /// \param sequence the sequence number of the event.
+    /// \return index of the event in the arrays.
+    private int index(long sequence) {
+
+        return (int)sequence & (mTypes.length - 1);
+
+    }
+
+    /// Double the capacity of the buffer, keeping the events of the current step at
+    /// the positions of their sequence numbers.
+    private void grow() {
+
+        byte[] types = Arrays.copyOf(mTypes, mTypes.length * 2);
+        int[] particles = Arrays.copyOf(mParticles, mParticles.length * 2);
+        CollidableObject[] objects = Arrays.copyOf(mObjects, mObjects.length * 2);
+        for (long s = mStart; s < mEnd; ++s) {
+
+            int from = index(s);
+            int to = (int)s & (types.length - 1);
+            types[to] = mTypes[from];
+            particles[to] = mParticles[from];
+            objects[to] = mObjects[from];
+
+        }
+        mTypes = types;
+        mParticles = particles;
+        mObjects = objects;
+
+    }
+
+}
@@ -1,6 +1,8 @@
 package scene;
 
+import gameobject.TextObject;
 import gameobject.TextureObject;
+import profile.Profiler;
 
 /// Game context holding objects that make up the scene.
 public class Context {
@@ -9,8 +11,12 @@ public class Context {
     public int score;
     public ForceManager fManager;
     public TextureObject crosshair;
+    public TextObject waveStatus;
+    public TextObject missileStatus;
     public ParticleManager pManager;
     public CityManager cManager;
     public MissileManager mManager;
+    public CollisionEvents collisions;
+    public Profiler profiler;
 
 }
@@ -1,10 +1,10 @@
 package scene;
 
-import processing.core.PVector;
 import java.util.ArrayList;
-import java.util.Iterator;
-import gameobject.PhysicsObject;
+import gameobject.ParticleStore;
 import force.ForceGenerator;
+import force.HoleField;
+import force.HoleGravity;
 
 /// Class for managing and apply forces active in the game world.
 public class ForceManager {
@@ -12,10 +12,51 @@ public class ForceManager {
     /// Forces active in the game world.
     ArrayList<ForceGenerator> mForces;
 
+    /// Global forces applied to every particle individually, excluding black hole 
+    /// gravity while it is sampled from the field.
+    private final ArrayList<ForceGenerator> mApplied;
+
+    /// Local forces applied only to particles found near them.
+    private final ArrayList<ForceGenerator> mLocal;
+
+    /// Approximate field of black hole gravity, null if not used.
+    private HoleField mHoleField;
+
+    /// Number of black holes at which gravity is sampled from the field instead.
+    private int mFieldHoles;
+
+    /// Whether black hole gravity is currently sampled from the field.
+    private boolean mUseField;
+
     /// Initialise list of forces.
     public ForceManager() {
 
         mForces = new ArrayList<ForceGenerator>();
+        mApplied = new ArrayList<ForceGenerator>();
+        mLocal = new ArrayList<ForceGenerator>();
+        mHoleField = null;
+        mFieldHoles = 0;
+        mUseField = false;
+
+    }
+
+    /// Approximate black hole gravity with a field rebuilt each update once there are
+    /// enough black holes, instead of applying each hole's gravity individually.
+    /// \param theta the field's opening angle, 0 gives the exact force and larger
+    ///              angles are faster but less accurate.
+    /// \param minHoles the number of black holes needed to use the field.
+    public void setHoleField(float theta, int minHoles) {
+
+        mHoleField = new HoleField(theta);
+        mFieldHoles = Math.max(minHoles, 1);
+
+    }
+
+    /// Get the number of forces in the manager.
+    /// \return the number of forces.
+    public int size() {
+
+        return mForces.size();
 
     }
 
@@ -27,24 +68,87 @@ public class ForceManager {
 
     }
 
-    /// Apply all forces active in the game world to a object.
-    /// \param object the game object to have physics applied to it.
-    public void applyForce(PhysicsObject object) {
+    /// Remove any forces that are no longer active and rebuild the black hole field.
+    /// Called once per update so that applying forces does not modify the manager and 
+    /// can be done from several threads.
+    public void update() {
+
+        mForces.removeIf(force -> !force.isActive());
+
+        // Count black holes to decide whether to sample their gravity from the field.
+        int holes = 0;
+        for (int i = 0; i < mForces.size(); ++i) {
+
+            if (mForces.get(i) instanceof HoleGravity) {
+
+                ++holes;
+
+            }
+
+        }
+        mUseField = (mHoleField != null) && (holes >= mFieldHoles);
+
+        // Separate local forces from the global forces that still need to be applied
+        // to every particle individually.
+        mApplied.clear();
+        mLocal.clear();
+        for (int i = 0; i < mForces.size(); ++i) {
 
-        // Apply each force in the manager to the object.
-        Iterator<ForceGenerator> it = mForces.iterator();
-        while (it.hasNext()) {
+            ForceGenerator force = mForces.get(i);
+            if (force.isLocal()) {
 
-            ForceGenerator force = it.next();
+                mLocal.add(force);
+
+            } else if (!mUseField || !(force instanceof HoleGravity)) {
+
+                mApplied.add(force);
+
+            }
+
+        }
+        if (mUseField) {
+
+            mHoleField.build(mForces);
+
+        }
+
+    }
+
+    /// Apply all global forces active in the game world to a particle. Local forces
+    /// are applied separately with applyLocalForces().
+    /// \param particles the store holding the particle.
+    /// \param index the index of the particle to have physics applied to it.
+    public void applyForce(ParticleStore particles, int index) {
+
+        // Apply each force in the manager to the particle. Forces add to the 
+        // particle's accumulated force directly so nothing is allocated.
+        for (int i = 0; i < mApplied.size(); ++i) {
+
+            mApplied.get(i).generateForce(particles, index);
+
+        }
+        if (mUseField) {
+
+            mHoleField.apply(particles, index);
+
+        }
+
+    }
 
-            // Remove any forces that are no longer active.
-            if (!force.isActive()) {
+    /// Apply each local force to the flying particles overlapping its area of 
+    /// influence, found using a broadphase. Uses the broadphase's query results so
+    /// must be called from one thread.
+    /// \param particles the store holding the particles.
+    /// \param broadphase broadphase built from the particles' current positions.
+    public void applyLocalForces(ParticleStore particles, ParticleBroadphase broadphase) {
 
-                it.remove();
+        for (int i = 0; i < mLocal.size(); ++i) {
 
-            } else {
+            ForceGenerator force = mLocal.get(i);
+            int found = broadphase.query(particles, force.getXCentre(), force.getYCentre(), force.getRadius());
+            for (int k = 0; k < found; ++k) {
 
-                object.applyForce(force.generateForce(object));
+                force.generateForce(particles, broadphase.getResult(k));
 
             }
 
@@ -1,6 +1,5 @@
 package scene;
 
-import processing.core.PApplet;
 import processing.core.PVector;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -8,8 +7,11 @@ import java.util.function.Supplier;
 import gameobject.Projectile;
 import gameobject.Missile;
 import gameobject.BlackHole;
-import gameobject.Particle;
+import gameobject.ParticleStore;
 import gameobject.Turret;
+import pool.Pool;
+import render.Layer;
+import render.Snapshot;
 
 /// Container managing and missile firing and destruction.
 public class MissileManager {
@@ -29,11 +31,14 @@ public class MissileManager {
     /// Turret for firing missiles.
     private final Turret mTurret;
 
-    /// Factory for creating missiles.
-    private final Supplier<Missile> mMissileFactory;
+    /// Cached rendering of the turret, which only changes when firing or destroyed.
+    private final Layer mTurretLayer;
 
-    /// Factory for creating black holes.
-    private final Supplier<BlackHole> mHoleFactory;
+    /// Pool of reusable missiles.
+    private final Pool<Missile> mMissilePool;
+
+    /// Pool of reusable black holes.
+    private final Pool<BlackHole> mHolePool;
 
     /// Point that missiles are fired from.
     private final PVector mSpawn;
@@ -66,9 +71,10 @@ public class MissileManager {
         mTurret = turretFactory.get();
         mTurret.setTranslation(spawn);
         mTurret.translate(0f, -50f);
+        mTurretLayer = new Layer();
 
-        mMissileFactory = missileFactory;
-        mHoleFactory = holeFactory;
+        mMissilePool = new Pool<Missile>(missileFactory);
+        mHolePool = new Pool<BlackHole>(holeFactory);
 
         mMissiles = new ArrayList<Missile>();
         mHoles = new ArrayList<BlackHole>();
@@ -144,7 +150,8 @@ public class MissileManager {
         // Only fire a missile if there is one available to fire and turret is not destroyed.
         if (mMissileCount > 0 && !mTurret.isDestroyed()) {
 
-            Missile missile = mMissileFactory.get();
+            Missile missile = mMissilePool.obtain();
+            missile.reset();
             missile.setTranslation(mSpawn);
             missile.fire(target);
             mMissiles.add(missile);
@@ -164,7 +171,8 @@ public class MissileManager {
         // Only fire a Black Hole if there is one available to fire and turret is not destroyed.
         if (mHoleCount > 0 && !mTurret.isDestroyed()) {
 
-            BlackHole blackHole = mHoleFactory.get();
+            BlackHole blackHole = mHolePool.obtain();
+            blackHole.reset();
             blackHole.setTranslation(mSpawn);
             blackHole.fire(target);
             mHoles.add(blackHole);
@@ -177,35 +185,83 @@ public class MissileManager {
 
     }
 
-    /// Update projectile positions and explode any that collide with particles.
+    /// Update turret and projectile positions.
     /// \param delta time since last update.
-    /// \param pManager particles to check for collision.
-    public void update(float delta, ParticleManager pManager) {
+    public void update(float delta) {
 
         // Update turret.
         mTurret.update(delta);
 
-        // Update projectile positions and explode projectiles that collide with particles.
-        updateProjectiles(delta, pManager, mMissiles);
-        updateProjectiles(delta, pManager, mHoles);
+        // Update projectile positions.
+        updateProjectiles(delta, mMissiles, mMissilePool);
+        updateProjectiles(delta, mHoles, mHolePool);
 
-        // Destroy particles that collide with black hole.
-        Iterator<BlackHole> it = mHoles.iterator();
-        while (it.hasNext()) {
+    }
+
+    /// Find flying projectiles that collide with particles and particles caught by
+    /// black holes, adding an event for each. Particles caught by a black hole are
+    /// exploded, including by a hole that collides with them in this step.
+    /// \param pManager particles to check for collision.
+    /// \param events collision events of the current step.
+    public void findCollisions(ParticleManager pManager, CollisionEvents events) {
+
+        // Add an event with the first particle found for each colliding missile.
+        for (int i = 0; i < mMissiles.size(); ++i) {
+
+            Missile missile = mMissiles.get(i);
+            if (missile.isFlying() && 
+                pManager.query(missile.getXTranslation(),
+                               missile.getYTranslation(),
+                               missile.getRadius()) > 0) {
+
+                events.add(CollisionEvents.PARTICLE_PROJECTILE, pManager.getQueryResult(0), missile);
+
+            }
+
+        }
+
+        // Black holes destroy every particle they collide with, whether flying or 
+        // exploding.
+        ParticleStore particles = pManager.getParticles();
+        for (int i = 0; i < mHoles.size(); ++i) {
+
+            BlackHole hole = mHoles.get(i);
+            if (hole.isFlying() || hole.isExploding()) {
+
+                int found = pManager.query(hole.getXTranslation(), 
+                                           hole.getYTranslation(), 
+                                           hole.getRadius());
+                if (found > 0 && hole.isFlying()) {
+
+                    events.add(CollisionEvents.PARTICLE_PROJECTILE, pManager.getQueryResult(0), hole);
+
+                }
+                for (int k = 0; k < found; ++k) {
+
+                    int particle = pManager.getQueryResult(k);
+                    particles.explode(particle);
+                    events.add(CollisionEvents.PARTICLE_HOLE, particle, hole);
+
+                }
+
+            }
 
-            BlackHole hole = it.next();
-            if (hole.isExploding()) {
+        }
+
+    }
 
-                Iterator<Particle> particleIt = pManager.iterator();
-                while (particleIt.hasNext()) {
-                    
-                    Particle particle = particleIt.next();
-                    if (particle.isFlying() && particle.collides(hole)) {
+    /// Explode flying projectiles that collided with particles in the current step.
+    /// \param events collision events of the current step.
+    public void handleCollisions(CollisionEvents events) {
 
-                        particle.explode();
-                        pManager.countDestroyed();
+        for (long s = events.getStart(); s < events.getEnd(); ++s) {
+
+            if (events.getType(s) == CollisionEvents.PARTICLE_PROJECTILE) {
+
+                Projectile projectile = (Projectile)events.getObject(s);
+                if (projectile.isFlying()) {
 
-                    }
+                    projectile.explode();
 
                 }
 
@@ -215,39 +271,57 @@ public class MissileManager {
 
     }
 
+    /// Store current turret and projectile transformations for interpolation.
+    public void storePrevious() {
+
+        mTurret.storePrevious();
+        for (int i = 0; i < mMissiles.size(); ++i) {
+
+            mMissiles.get(i).storePrevious();
+
+        }
+        for (int i = 0; i < mHoles.size(); ++i) {
+
+            mHoles.get(i).storePrevious();
+
+        }
+
+    }
+
     /// Render turret and active projectiles.
-    /// \param core Processing core to use for rendering.
-    public void render(PApplet core) {
+    /// \param snapshot snapshot to record rendering into.
+    public void render(Snapshot snapshot) {
 
-        mTurret.render(core);
-        renderProjectiles(core, mMissiles);
-        renderProjectiles(core, mHoles);
+        snapshot.beginLayer(mTurretLayer, mTurret.getRevision());
+        mTurret.render(snapshot);
+        snapshot.endLayer();
+        renderProjectiles(snapshot, mMissiles);
+        renderProjectiles(snapshot, mHoles);
 
     }
 
     /// Render all projectiles in a list.
-    /// \param core Processing core to use to render projectiles.
+    /// \param snapshot snapshot to record rendering into.
     /// \param projectiles list of projectiles to render.
-    private <T extends Projectile> void renderProjectiles(PApplet core, 
+    private <T extends Projectile> void renderProjectiles(Snapshot snapshot, 
                                                           ArrayList<T> projectiles) {
 
         Iterator<T> it = projectiles.iterator();
         while (it.hasNext()) {
 
-            it.next().render(core);
+            it.next().render(snapshot);
 
         }
 
     }
 
     /// Update movement and explosion progress of all projectiles in a list.
-    /// Explode any flying projectiles that collide with a particle.
     /// \param delta time since last update.
-    /// \param pManager particles to check for collision with.
     /// \param projectiles list of projectiles to update.
+    /// \param pool pool to return destroyed projectiles to.
     private <T extends Projectile> void updateProjectiles(float delta, 
-                                                          ParticleManager pManager, 
-                                                          ArrayList<T> projectiles) {
+                                                          ArrayList<T> projectiles,
+                                                          Pool<T> pool) {
 
         Iterator<T> it = projectiles.iterator();
         while (it.hasNext()) {
@@ -256,25 +330,11 @@ public class MissileManager {
             if (projectile.isDestroyed()) {
 
                 it.remove();
+                pool.free(projectile);
 
             } else {
 
                 projectile.update(delta);
-                if (projectile.isFlying()) {
-
-                    Iterator<Particle> particleIt = pManager.iterator();
-                    while (projectile.isFlying() && particleIt.hasNext()) {
-                        
-                        Particle particle = particleIt.next();
-                        if (particle.isFlying() && particle.collides(projectile)) {
-
-                            projectile.explode();
-
-                        }
-
-                    }
-
-                }
 
             }
 
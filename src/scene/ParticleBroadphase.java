@@ -0,0 +1,31 @@
+package scene;
+
+import gameobject.ParticleStore;
+
+/// Structure for finding flying particles that collide with a circle. It is rebuilt
+/// from a store after every update and is only valid until the particles move again.
+public interface ParticleBroadphase {
+
+    /// Drop particles that are about to be removed from the store, before the store
+    /// removes them and moves the remaining particles to new indices.
+    /// \param particles the store the structure was built from.
+    void removeDestroyed(ParticleStore particles);
+
+    /// Rebuild the structure with the current positions of particles in a store.
+    /// \param particles the particles to add.
+    void rebuild(ParticleStore particles);
+
+    /// Find flying particles that collide with a circle.
+    /// \param particles the store the structure was built from.
+    /// \param x x coordinate of the circle's centre.
+    /// \param y y coordinate of the circle's centre.
+    /// \param radius radius of the circle.
+    /// \return the number of particles found.
+    int query(ParticleStore particles, float x, float y, float radius);
+
+    /// Get a particle found by the last query.
+    /// \param k the position of the result, less than the count returned by the query.
+    /// \return the index of the particle in the store.
+    int getResult(int k);
+
+}
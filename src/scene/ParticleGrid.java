@@ -0,0 +1,234 @@
+package scene;
+
+import java.util.Arrays;
+import gameobject.ParticleStore;
+import rect.Rect;
+
+/// Uniform grid over a bounding area for finding particles near a point.
+/// The grid is rebuilt from scratch with the flying particles in a store and only
+/// remains valid until the particles move or the store is updated.
+public class ParticleGrid implements ParticleBroadphase {
+
+    /// Top left corner of the area covered by the grid.
+    private final float mX;
+    private final float mY;
+
+    /// Width and height of each cell.
+    private final float mCellSize;
+
+    /// Number of cells along each axis.
+    private final int mColumns;
+    private final int mRows;
+
+    /// Start of each cell's particles in the item array (with one extra end entry).
+    private final int[] mCellStart;
+
+    /// Next free position in each cell while filling the item array.
+    private final int[] mCellFill;
+
+    /// Particle indices ordered by cell.
+    private int[] mItems;
+
+    /// Cell of each particle, or -1 if the particle is not in the grid.
+    private int[] mParticleCell;
+
+    /// Largest collision radius of any particle in the grid.
+    private float mMaxRadius;
+
+    /// Particle indices found by the last query.
+    private int[] mResults;
+
+    /// Number of particles found by the last query.
+    private int mResultCount;
+
+    /// Initialise grid dimensions.
+    /// \param bounds area to cover with the grid.
+    /// \param cellSize the width and height of each cell.
+    public ParticleGrid(Rect bounds, float cellSize) {
+
+        mX = bounds.x;
+        mY = bounds.y;
+        mCellSize = cellSize;
+        mColumns = Math.max(1, (int)Math.ceil(bounds.width / cellSize));
+        mRows = Math.max(1, (int)Math.ceil(bounds.height / cellSize));
+
+        mCellStart = new int[mColumns * mRows + 1];
+        mCellFill = new int[mColumns * mRows];
+
+        int capacity = 256;
+        mItems = new int[capacity];
+        mParticleCell = new int[capacity];
+        mResults = new int[capacity];
+        mResultCount = 0;
+        mMaxRadius = 0f;
+
+    }
+
+    /// Nothing needs dropping as the grid is rebuilt from scratch.
+    /// \param particles the store the grid was built from.
+    public void removeDestroyed(ParticleStore particles) {
+
+    }
+
+    /// Rebuild the grid with the flying particles in a store.
+    /// \param particles the particles to add to the grid.
+    public void rebuild(ParticleStore particles) {
+
+        int count = particles.size();
+        if (mParticleCell.length < count) {
+
+            int capacity = Math.max(count, mParticleCell.length * 2);
+            mItems = new int[capacity];
+            mParticleCell = new int[capacity];
+
+        }
+
+        // Count the particles in each cell.
+        Arrays.fill(mCellStart, 0);
+        mMaxRadius = 0f;
+        for (int i = 0; i < count; ++i) {
+
+            if (particles.isFlying(i)) {
+
+                int cell = getCell(particles.getXTranslation(i), particles.getYTranslation(i));
+                mParticleCell[i] = cell;
+                ++mCellStart[cell + 1];
+                mMaxRadius = Math.max(mMaxRadius, particles.getRadius(i));
+
+            } else {
+
+                mParticleCell[i] = -1;
+
+            }
+
+        }
+
+        // Convert counts to start positions then place particles in their cells.
+        for (int cell = 0; cell < mCellFill.length; ++cell) {
+
+            mCellStart[cell + 1] += mCellStart[cell];
+            mCellFill[cell] = mCellStart[cell];
+
+        }
+        for (int i = 0; i < count; ++i) {
+
+            int cell = mParticleCell[i];
+            if (cell != -1) {
+
+                mItems[mCellFill[cell]++] = i;
+
+            }
+
+        }
+
+    }
+
+    /// Find flying particles that collide with a circle.
+    /// \param particles the store the grid was built from.
+    /// \param x x coordinate of the circle's centre.
+    /// \param y y coordinate of the circle's centre.
+    /// \param radius radius of the circle.
+    /// \return the number of particles found.
+    public int query(ParticleStore particles, float x, float y, float radius) {
+
+        mResultCount = 0;
+
+        // Only check cells that could contain a particle overlapping the circle.
+        float reach = radius + mMaxRadius;
+        int minColumn = getColumn(x - reach);
+        int maxColumn = getColumn(x + reach);
+        int minRow = getRow(y - reach);
+        int maxRow = getRow(y + reach);
+
+        for (int row = minRow; row <= maxRow; ++row) {
+
+            for (int column = minColumn; column <= maxColumn; ++column) {
+
+                int cell = row * mColumns + column;
+                for (int k = mCellStart[cell]; k < mCellStart[cell + 1]; ++k) {
+
+                    int i = mItems[k];
+                    if (particles.isFlying(i) && collides(particles, i, x, y, radius)) {
+
+                        addResult(i);
+
+                    }
+
+                }
+
+            }
+
+        }
+        return mResultCount;
+
+    }
+
+    /// Get a particle found by the last query.
+    /// \param k the position of the result, less than the count returned by the query.
+    /// \return the index of the particle in the store.
+    public int getResult(int k) {
+
+        return mResults[k];
+
+    }
+
+    /// Check whether a particle collides with a circle.
+    /// \param particles the store holding the particle.
+    /// \param i the index of the particle.
+    /// \param x x coordinate of the circle's centre.
+    /// \param y y coordinate of the circle's centre.
+    /// \param radius radius of the circle.
+    /// \return whether the particle and circle collide.
+    private boolean collides(ParticleStore particles, int i, float x, float y, float radius) {
+
+        float dx = x - particles.getXTranslation(i);
+        float dy = y - particles.getYTranslation(i);
+        float radii = radius + particles.getRadius(i);
+        return (radii * radii) > (dx * dx + dy * dy);
+
+    }
+
+    /// Add a particle to the query results.
+    /// \param i the index of the particle.
+    private void addResult(int i) {
+
+        if (mResultCount == mResults.length) {
+
+            mResults = Arrays.copyOf(mResults, mResults.length * 2);
+
+        }
+        mResults[mResultCount++] = i;
+
+    }
+
+    /// Get the cell containing a point, clamped to the grid.
+    /// \param x x coordinate of the point.
+    /// \param y y coordinate of the point.
+    /// \return index of the cell containing the point.
+    private int getCell(float x, float y) {
+
+        return getRow(y) * mColumns + getColumn(x);
+
+    }
+
+    /// Get the column containing an x coordinate, clamped to the grid.
+    /// \param x the x coordinate.
+    /// \return the column containing x.
+    private int getColumn(float x) {
+
+        int column = (int)Math.floor((x - mX) / mCellSize);
+        return Math.min(Math.max(column, 0), mColumns - 1);
+
+    }
+
+    /// Get the row containing a y coordinate, clamped to the grid.
+    /// \param y the y coordinate.
+    /// \return the row containing y.
+    private int getRow(float y) {
+
+        int row = (int)Math.floor((y - mY) / mCellSize);
+        return Math.min(Math.max(row, 0), mRows - 1);
+
+    }
+
+}
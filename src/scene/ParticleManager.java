@@ -1,12 +1,15 @@
 package scene;
 
-import processing.core.PApplet;
-import processing.core.PVector;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.function.Supplier;
-import gameobject.Particle;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import gameobject.ParticleStore;
 import rect.Rect;
+import render.Snapshot;
+import profile.Profiler;
+import profile.CollisionEvent;
+import profile.SpawnEvent;
 
 public class ParticleManager {
 
@@ -19,9 +22,6 @@ public class ParticleManager {
     /// Multiplier to modify particles spawn intetval with.
     private final float mIntervalMultiplier;
 
-    /// Accumulated number of particles destroyed by the player since last check.
-    private int mPlayerDestroyed;
-
     /// Starting interval that particles first spawn at.
     private final float mBaseInterval;
 
@@ -38,23 +38,45 @@ public class ParticleManager {
     private Rect mBounds;
 
     /// Particles currently active in the game world.
-    private ArrayList<Particle> mParticles;
+    private final ParticleStore mParticles;
+
+    /// Spawner for adding new particles to the store.
+    private final Consumer<ParticleStore> mSpawner;
+
+    /// Size of grid cells when finding particles near a point with a grid.
+    private final float mCellSize;
+
+    /// Structure for finding particles near a point.
+    private ParticleBroadphase mBroadphase;
+
+    /// Pool for updating particles in parallel, null when updating on one thread.
+    private ForkJoinPool mPool;
+
+    /// Maximum number of particles updated by one task in parallel updates.
+    private int mChunkSize;
+
+    /// Profiler to record time spent applying forces to, null if not profiled.
+    private Profiler mProfiler;
 
-    /// Factory for creating particles.
-    private Supplier<Particle> mParticleFactory;
+    /// Time spent applying forces this update, summed across threads.
+    private final AtomicLong mForceTime;
 
     /// Initialise particle properties.
-    /// \param particleFactory factory for creating particles.
+    /// \param particles store to hold active particles.
+    /// \param spawner spawner for adding new particles to the store.
     /// \param baseCount starting number of particles for a wave.
     /// \param waveMultiplier multiplier to increase particles per wave with.
     /// \param interval time period between particle spawns.
     /// \param bounds bounds that particles must stay within.
-    public ParticleManager(Supplier<Particle> particleFactory,
+    /// \param cellSize size of the grid cells used for collision queries.
+    public ParticleManager(ParticleStore particles,
+                           Consumer<ParticleStore> spawner,
                            int baseCount,
                            float baseInterval,
                            float countMultiplier,
                            float intervalMultiplier,
-                           Rect bounds) {
+                           Rect bounds,
+                           float cellSize) {
 
         mBaseCount = baseCount;
         mBaseInterval = baseInterval;
@@ -62,39 +84,62 @@ public class ParticleManager {
         mIntervalMultiplier = intervalMultiplier;
         mInterval = baseInterval;
         mRemaining = 0;
-        mPlayerDestroyed = 0;
         mTime = 0f;
 
         mBounds = bounds.copy();
 
-        mParticles = new ArrayList<Particle>();
+        mParticles = particles;
+        mParticles.clear();
+
+        mSpawner = spawner;
+
+        mCellSize = cellSize;
+        mBroadphase = new ParticleGrid(mBounds, cellSize);
+        mBroadphase.rebuild(mParticles);
 
-        mParticleFactory = particleFactory;
+        mPool = null;
+        mChunkSize = 1;
+        mProfiler = null;
+        mForceTime = new AtomicLong();
 
     }
 
-    /// Check how many particles have been destroyed by the payer then reset the count.
-    /// \return int the number of particles destroyed by the player.
-    public int getPlayerDestroyed() {
+    /// Get the store of active particles.
+    /// \return store of active particles.
+    public ParticleStore getParticles() {
 
-        int count = mPlayerDestroyed;
-        mPlayerDestroyed = 0;
-        return count;
+        return mParticles;
 
     }
 
-    /// Increment number of particles destroyed by the player.
-    public void countDestroyed() {
+    /// Find flying particles that collide with a circle.
+    /// Results are valid until the next query or update.
+    /// \param x x coordinate of the circle's centre.
+    /// \param y y coordinate of the circle's centre.
+    /// \param radius radius of the circle.
+    /// \return the number of particles found.
+    public int query(float x, float y, float radius) {
 
-        ++mPlayerDestroyed;
+        CollisionEvent event = new CollisionEvent();
+        event.begin();
+        int found = mBroadphase.query(mParticles, x, y, radius);
+        if (event.shouldCommit()) {
+
+            event.radius = radius;
+            event.hits = found;
+            event.commit();
+
+        }
+        return found;
 
     }
 
-    /// Get iterator over active particles.
-    /// return iterator over active particles.
-    public Iterator<Particle> iterator() {
+    /// Get a particle found by the last query.
+    /// \param k the position of the result, less than the count returned by the query.
+    /// \return the index of the particle in the particle store.
+    public int getQueryResult(int k) {
 
-        return mParticles.iterator();
+        return mBroadphase.getResult(k);
 
     }
 
@@ -105,8 +150,8 @@ public class ParticleManager {
 
         mTime = 0f;
         mParticles.clear();
+        mBroadphase.rebuild(mParticles);
         --wave;  
-        mPlayerDestroyed = 0;
         
         // Increase total particles and decrease spawn time based on multiplier.
         mRemaining = (int)(mBaseCount * (float)Math.pow(mCountMultiplier, wave));
@@ -122,44 +167,117 @@ public class ParticleManager {
 
     }
 
+    /// Update particles across several threads once there are enough particles.
+    /// Particles are split into ranges no larger than the chunk size and each range 
+    /// is updated as a task in a fork-join pool.
+    /// \param threads the number of threads to use, 1 or less updates on the calling thread.
+    /// \param chunkSize the maximum number of particles updated by a single task.
+    public void setParallel(int threads, int chunkSize) {
+
+        if (mPool != null) {
+
+            mPool.shutdown();
+
+        }
+        mPool = (threads > 1) ? new ForkJoinPool(threads) : null;
+        mChunkSize = Math.max(chunkSize, 1);
+
+    }
+
+    /// Find particles near a point by sweeping over particles sorted along the x axis
+    /// instead of with a grid.
+    /// \param sweep whether to sweep over sorted particles.
+    public void setSweep(boolean sweep) {
+
+        if (sweep) {
+
+            mBroadphase = new ParticleSweep();
+
+        } else {
+
+            mBroadphase = new ParticleGrid(mBounds, mCellSize);
+
+        }
+        mBroadphase.rebuild(mParticles);
+
+    }
+
+    /// Record time spent applying forces with a profiler.
+    /// \param profiler the profiler to record with.
+    public void setProfiler(Profiler profiler) {
+
+        mProfiler = profiler;
+
+    }
+
     /// Apply forces to particles and update their position and state.
     /// \param delta time since last update.
     /// \param fManager forces to apply to particles.
     public void update(float delta, ForceManager fManager) {
 
-        Iterator<Particle> it = mParticles.iterator();
-        while (it.hasNext()) {
-        
-            Particle particle = it.next();
-            
-            // Apply forces to flying particles.
-            if (particle.isFlying()) {
+        // Remove inactive forces before applying the remaining forces.
+        fManager.update();
 
-                fManager.applyForce(particle);
+        // Apply local forces such as explosions only to particles near them, using
+        // the broadphase built from the particles' positions at the end of the last update.
+        boolean timed = (mProfiler != null) && mProfiler.isEnabled();
+        long start = timed ? System.nanoTime() : 0L;
+        fManager.applyLocalForces(mParticles, mBroadphase);
+        if (timed) {
 
-            }
+            mForceTime.addAndGet(System.nanoTime() - start);
+
+        }
+
+        // Update all particles, splitting them across the pool if there are enough.
+        int count = mParticles.size();
+        if (mPool != null && count > mChunkSize) {
+
+            mPool.invoke(new UpdateTask(0, count, delta, fManager));
 
-            // Update particle.
-            particle.update(delta);
+        } else {
 
-            // Remove destroyed particles.
-            if (particle.isDestroyed()) {
+            updateRange(0, count, delta, fManager);
 
-                it.remove();
+        }
+
+        // Remove destroyed particles once all ranges have finished, keeping the 
+        // remaining particles in the same order regardless of how they were split.
+        mBroadphase.removeDestroyed(mParticles);
+        mParticles.removeDestroyed();
+
+        if (mProfiler != null && mProfiler.isEnabled()) {
+
+            mProfiler.record(Profiler.FORCES, mForceTime.getAndSet(0L));
+
+        }
+
+        mTime += delta;
+        spawn();
+
+        // Rebuild broadphase with new particle positions for collision queries.
+        mBroadphase.rebuild(mParticles);
+
+    }
 
-            // explode flying particles that go out of bounds.
-            } else if (particle.isFlying()) {
+    /// Explode flying particles that have gone out of bounds and add an event for each.
+    /// \param events collision events of the current step.
+    public void findOutOfBounds(CollisionEvents events) {
 
-                float radius = particle.getRadius();
-                float x = particle.getXTranslation();
-                float y = particle.getYTranslation();
+        for (int i = 0; i < mParticles.size(); ++i) {
+
+            if (mParticles.isFlying(i)) {
+
+                float radius = mParticles.getRadius(i);
+                float x = mParticles.getXTranslation(i);
+                float y = mParticles.getYTranslation(i);
                 if ((x - radius < mBounds.x) ||
                     (y - radius < mBounds.y) ||
                     (x + radius > mBounds.x + mBounds.width) ||
                     (y + radius > mBounds.y + mBounds.height)) {
 
-                    particle.explode();
-                    ++mPlayerDestroyed;
+                    mParticles.explode(i);
+                    events.add(CollisionEvents.OUT_OF_BOUNDS, i, null);
 
                 } 
 
@@ -167,34 +285,135 @@ public class ParticleManager {
 
         }
 
-        mTime += delta;
-        spawn();
+    }
+
+    /// Rebuild the broadphase after particles were added to the store without the 
+    /// manager. Queries and local forces rely on the broadphase matching the store.
+    public void rebuildBroadphase() {
+
+        mBroadphase.rebuild(mParticles);
+
+    }
+
+    /// Store current particle translations for interpolation.
+    public void storePrevious() {
+
+        mParticles.storePrevious();
 
     }
 
     /// Render each particle.
-    /// \param core Processing core to render particles with.
-    public void render(PApplet core) {
+    /// \param snapshot snapshot to record rendering into.
+    public void render(Snapshot snapshot) {
 
-        Iterator<Particle> it = mParticles.iterator();
-        while (it.hasNext()) {
-        
-            it.next().render(core);
+        mParticles.render(snapshot);
+
+    }
+
+    /// Apply global forces to a range of particles and update them.
+    /// \param from index of the first particle to update.
+    /// \param to index after the last particle to update.
+    /// \param delta time since last update.
+    /// \param fManager forces to apply to particles.
+    private void updateRange(int from, int to, float delta, ForceManager fManager) {
+
+        // Apply global forces to flying particles.
+        boolean timed = (mProfiler != null) && mProfiler.isEnabled();
+        long start = timed ? System.nanoTime() : 0L;
+        for (int i = from; i < to; ++i) {
+
+            if (mParticles.isFlying(i)) {
+
+                fManager.applyForce(mParticles, i);
+
+            }
+
+        }
+        if (timed) {
+
+            mForceTime.addAndGet(System.nanoTime() - start);
 
         }
 
+        // Update particles.
+        mParticles.update(from, to, delta);
+
     }
 
     /// Spawn particles based on time passed and spawn interval.
     private void spawn() {
 
+        SpawnEvent event = new SpawnEvent();
+        event.begin();
+        int spawned = 0;
         while ((mRemaining > 0) && (mTime > mInterval)) {
 
-            Particle particle = mParticleFactory.get();
-            mParticles.add(particle);
+            mSpawner.accept(mParticles);
 
             --mRemaining;
             mTime -= mInterval;
+            ++spawned;
+
+        }
+
+        if (spawned > 0 && event.shouldCommit()) {
+
+            event.spawned = spawned;
+            event.remaining = mRemaining;
+            event.commit();
+
+        }
+
+    }
+
+    /// Task updating a range of particles, splitting the range in half until it
+    /// is no larger than the chunk size.
+    private class UpdateTask extends RecursiveAction {
+
+        /// Tasks are never serialised, but fork-join tasks are serializable.
+        private static final long serialVersionUID = 1L;
+
+        /// Range of particles to update.
+        private final int mFrom;
+        private final int mTo;
+
+        /// Time since last update.
+        private final float mDelta;
+
+        /// Forces to apply to particles.
+        private final ForceManager mFManager;
+
+        /// Initialise range and update properties.
+        /// \param from index of the first particle to update.
+        /// \param to index after the last particle to update.
+        /// \param delta time since last update.
+        /// \param fManager forces to apply to particles.
+        UpdateTask(int from, int to, float delta, ForceManager fManager) {
+
+            mFrom = from;
+            mTo = to;
+            mDelta = delta;
+            mFManager = fManager;
+
+        }
+
+        /// Update the range or split it between two tasks.
+        protected void compute() {
+
+            if (mTo - mFrom <= mChunkSize) {
+
+                updateRange(mFrom, mTo, mDelta, mFManager);
+
+            } else {
+
+                // Update first half in another task while updating second half.
+                int middle = (mFrom + mTo) >>> 1;
+                UpdateTask first = new UpdateTask(mFrom, middle, mDelta, mFManager);
+                first.fork();
+                new UpdateTask(middle, mTo, mDelta, mFManager).compute();
+                first.join();
+
+            }
 
         }
 
@@ -0,0 +1,277 @@
+package scene;
+
+import java.util.Arrays;
+import gameobject.ParticleStore;
+
+/// Particles sorted by the left edge of their extent along the x axis, for finding
+/// particles near a point by sweeping over only the extents that overlap it.
+/// The order is kept between updates and repaired with an insertion sort, which is
+/// close to linear while particles keep mostly the same order from step to step.
+public class ParticleSweep implements ParticleBroadphase {
+
+    /// Largest fraction of new particles that are inserted into the previous order
+    /// instead of sorting every particle again.
+    private static final float INSERT_FRACTION = 0.25f;
+
+    /// Particle indices ordered by the left edge of their extent.
+    private int[] mOrder;
+
+    /// Left edge of the extent of each particle in the order.
+    private float[] mLeft;
+
+    /// Number of particles in the order, which holds every index up to this count.
+    private int mCount;
+
+    /// Largest collision radius of any particle in the order.
+    private float mMaxRadius;
+
+    /// Old indices mapped to indices after destroyed particles are removed.
+    private int[] mRemap;
+
+    /// Left edges packed with indices for sorting every particle at once.
+    private long[] mPacked;
+
+    /// Particle indices found by the last query.
+    private int[] mResults;
+
+    /// Number of particles found by the last query.
+    private int mResultCount;
+
+    /// Initialise empty order.
+    public ParticleSweep() {
+
+        int capacity = 256;
+        mOrder = new int[capacity];
+        mLeft = new float[capacity];
+        mRemap = new int[capacity];
+        mPacked = new long[capacity];
+        mResults = new int[capacity];
+        mCount = 0;
+        mMaxRadius = 0f;
+        mResultCount = 0;
+
+    }
+
+    /// Drop destroyed particles from the order and move the others to the indices
+    /// they will have once the store removes destroyed particles.
+    /// \param particles the store the order was built from.
+    public void removeDestroyed(ParticleStore particles) {
+
+        // Find the index each particle is moved to, keeping remaining particles in order.
+        int count = Math.min(mCount, particles.size());
+        int kept = 0;
+        for (int i = 0; i < count; ++i) {
+
+            mRemap[i] = particles.isDestroyed(i) ? -1 : kept++;
+
+        }
+
+        int k = 0;
+        for (int j = 0; j < mCount; ++j) {
+
+            int i = mOrder[j];
+            if (i < count && mRemap[i] != -1) {
+
+                mOrder[k++] = mRemap[i];
+
+            }
+
+        }
+        mCount = k;
+
+    }
+
+    /// Add new particles to the order and sort it by the particles' current positions.
+    /// \param particles the particles to sort.
+    public void rebuild(ParticleStore particles) {
+
+        int count = particles.size();
+        if (mOrder.length < count) {
+
+            int capacity = Math.max(count, mOrder.length * 2);
+            mOrder = Arrays.copyOf(mOrder, capacity);
+            mLeft = new float[capacity];
+            mRemap = new int[capacity];
+            mPacked = new long[capacity];
+
+        }
+
+        // Start again if particles were removed without dropping them from the order.
+        if (count < mCount) {
+
+            mCount = 0;
+
+        }
+        int added = count - mCount;
+        for (int i = mCount; i < count; ++i) {
+
+            mOrder[i] = i;
+
+        }
+        mCount = count;
+
+        // Update extents with current positions.
+        mMaxRadius = 0f;
+        for (int k = 0; k < mCount; ++k) {
+
+            int i = mOrder[k];
+            float radius = particles.getRadius(i);
+            mLeft[k] = particles.getXTranslation(i) - radius;
+            mMaxRadius = Math.max(mMaxRadius, radius);
+
+        }
+
+        if (added > mCount * INSERT_FRACTION) {
+
+            sortAll();
+
+        } else {
+
+            insertionSort();
+
+        }
+
+    }
+
+    /// Find flying particles that collide with a circle.
+    /// \param particles the store the order was built from.
+    /// \param x x coordinate of the circle's centre.
+    /// \param y y coordinate of the circle's centre.
+    /// \param radius radius of the circle.
+    /// \return the number of particles found.
+    public int query(ParticleStore particles, float x, float y, float radius) {
+
+        mResultCount = 0;
+
+        // Only check particles whose extent could overlap the circle's. Extents are no
+        // wider than the largest diameter so the left edge is at most that far left.
+        int end = lowerBound(x + radius);
+        for (int k = lowerBound(x - radius - 2f * mMaxRadius); k < end; ++k) {
+
+            int i = mOrder[k];
+            if (particles.isFlying(i) && collides(particles, i, x, y, radius)) {
+
+                addResult(i);
+
+            }
+
+        }
+        return mResultCount;
+
+    }
+
+    /// Get a particle found by the last query.
+    /// \param k the position of the result, less than the count returned by the query.
+    /// \return the index of the particle in the store.
+    public int getResult(int k) {
+
+        return mResults[k];
+
+    }
+
+    /// Sort the order by left edge, moving each particle back past particles further
+    /// right than it.
+    private void insertionSort() {
+
+        for (int k = 1; k < mCount; ++k) {
+
+            float left = mLeft[k];
+            if (left < mLeft[k - 1]) {
+
+                int i = mOrder[k];
+                int j = k;
+                do {
+
+                    mLeft[j] = mLeft[j - 1];
+                    mOrder[j] = mOrder[j - 1];
+                    --j;
+
+                } while (j > 0 && left < mLeft[j - 1]);
+                mLeft[j] = left;
+                mOrder[j] = i;
+
+            }
+
+        }
+
+    }
+
+    /// Sort the order by left edge from scratch. Left edges are packed above indices
+    /// into longs that sort in the same order as the edges.
+    private void sortAll() {
+
+        for (int k = 0; k < mCount; ++k) {
+
+            // Flip the bits of negative floats so their bits sort as signed ints.
+            int bits = Float.floatToIntBits(mLeft[k]);
+            bits ^= (bits >> 31) & 0x7FFFFFFF;
+            mPacked[k] = ((long)bits << 32) | mOrder[k];
+
+        }
+        Arrays.sort(mPacked, 0, mCount);
+        for (int k = 0; k < mCount; ++k) {
+
+            int bits = (int)(mPacked[k] >> 32);
+            bits ^= (bits >> 31) & 0x7FFFFFFF;
+            mLeft[k] = Float.intBitsToFloat(bits);
+            mOrder[k] = (int)mPacked[k];
+
+        }
+
+    }
+
+    /// Find the first particle in the order whose left edge is not less than a value.
+    /// \param left the left edge to search for.
+    /// \return the position of the particle, or the count if there is none.
+    private int lowerBound(float left) {
+
+        int low = 0;
+        int high = mCount;
+        while (low < high) {
+
+            int middle = (low + high) >>> 1;
+            if (mLeft[middle] < left) {
+
+                low = middle + 1;
+
+            } else {
+
+                high = middle;
+
+            }
+
+        }
+        return low;
+
+    }
+
+    /// Check whether a particle collides with a circle.
+    /// \param particles the store holding the particle.
+    /// \param i the index of the particle.
+    /// \param x x coordinate of the circle's centre.
+    /// \param y y coordinate of the circle's centre.
+    /// \param radius radius of the circle.
+    /// \return whether the particle and circle collide.
+    private boolean collides(ParticleStore particles, int i, float x, float y, float radius) {
+
+        float dx = x - particles.getXTranslation(i);
+        float dy = y - particles.getYTranslation(i);
+        float radii = radius + particles.getRadius(i);
+        return (radii * radii) > (dx * dx + dy * dy);
+
+    }
+
+    /// Add a particle to the query results.
+    /// \param i the index of the particle.
+    private void addResult(int i) {
+
+        if (mResultCount == mResults.length) {
+
+            mResults = Arrays.copyOf(mResults, mResults.length * 2);
+
+        }
+        mResults[mResultCount++] = i;
+
+    }
+
+}
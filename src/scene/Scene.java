@@ -1,7 +1,7 @@
 package scene;
 
-import processing.core.PApplet;
 import processing.core.PVector;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import state.SceneState;
 import state.StartState;
@@ -10,12 +10,18 @@ import texture.Texture;
 import gameobject.Missile;
 import gameobject.BlackHole;
 import gameobject.Turret;
+import gameobject.TextObject;
 import gameobject.TextureObject;
-import gameobject.Particle;
+import gameobject.ParticleStore;
 import force.BasicGravity;
 import force.Drag;
 import random.Randomiser;
 import rect.Rect;
+import render.Snapshot;
+import replay.InputRecording;
+import profile.Profiler;
+import profile.StateTransitionEvent;
+import profile.StepEvent;
 
 /// Game scene. Manages and renders the game world.
 public class Scene {
@@ -26,22 +32,85 @@ public class Scene {
     /// Current state for delegation of input handling, updates and rendering.
     private SceneState mState;
 
+    /// Number of updates carried out so far.
+    private int mStep;
+
+    /// Recording to log input into, null if input is not recorded.
+    private InputRecording mRecording;
+
     /// Initialise scene.
     /// \param tManager central storage of textures that can be used in the game.
-    public Scene(TextureManager tManager) {
+    /// \param seed seed for random numbers, the same seed always produces the same waves.
+    public Scene(TextureManager tManager, long seed) {
 
         mContext = new Context();
         mContext.wave = 1;
         mContext.score = 0;
+        mContext.profiler = new Profiler();
+
+        // Each manager gets its own stream so they do not affect each other's numbers.
+        Randomiser random = new Randomiser(seed);
 
         // Initialise managers.
         initFManager();
         initCrosshair(tManager);
-        initCManager(tManager);
-        initPManager(tManager);
+        initStatus();
+        initCManager(tManager, random.stream("cities"));
+        initPManager(tManager, random.stream("particles"));
         initMManager(tManager);
+        mContext.collisions = new CollisionEvents(256);
         
         mState = new StartState(mContext);
+        mStep = 0;
+        mRecording = null;
+
+    }
+
+    /// Get the number of updates carried out so far.
+    /// \return the index of the next step.
+    public int getStep() {
+
+        return mStep;
+
+    }
+
+    /// Log all input handled from now on into a recording.
+    /// \param recording the recording to log input into.
+    public void setRecording(InputRecording recording) {
+
+        mRecording = recording;
+
+    }
+
+    /// Get the current state of the scene.
+    /// \return the state currently handling input, updates and rendering.
+    public SceneState getState() {
+
+        return mState;
+
+    }
+
+    /// Get the profiler timing sections of the scene's updates.
+    /// \return the scene's profiler.
+    public Profiler getProfiler() {
+
+        return mContext.profiler;
+
+    }
+
+    /// Get the wave currently being played.
+    /// \return the current wave number.
+    public int getWave() {
+
+        return mContext.wave;
+
+    }
+
+    /// Get the player's current score.
+    /// \return the current score.
+    public int getScore() {
+
+        return mContext.score;
 
     }
 
@@ -49,17 +118,44 @@ public class Scene {
     /// \param delta time since the last update.
     public void update(float delta) {
 
+        long start = mContext.profiler.start();
+        StepEvent event = new StepEvent();
+        event.begin();
+
+        // Keep transformations from before the update for render interpolation.
+        mContext.pManager.storePrevious();
+        mContext.mManager.storePrevious();
+        mContext.cManager.storePrevious();
+
         // Delegate updating to current state.
-        mState = mState.update(delta);
+        setState(mState.update(delta));
+        ++mStep;
+        if (mRecording != null) {
+
+            mRecording.setLength(mStep);
+
+        }
+        mContext.profiler.stop(Profiler.STEP, start);
+
+        if (event.shouldCommit()) {
+
+            event.step = mStep;
+            event.particles = mContext.pManager.getParticles().size();
+            event.forces = mContext.fManager.size();
+            event.commit();
+
+        }
 
     }
 
     /// Render the scene.
-    /// \param core Processing core to use for rendering.
-    public void render(PApplet core) {
+    /// \param snapshot snapshot to record rendering into.
+    public void render(Snapshot snapshot) {
 
         // Delegate rendering to current state.
-        mState.render(core);
+        long start = mContext.profiler.start();
+        mState.render(snapshot);
+        mContext.profiler.stop(Profiler.RECORD, start);
 
     }
 
@@ -68,7 +164,8 @@ public class Scene {
     public void handleLeftClick(PVector position) {
 
         // Delegate left click handling to current state.
-        mState = mState.handleLeftClick(position);
+        record(InputRecording.LEFT_CLICK, position.x, position.y);
+        setState(mState.handleLeftClick(position));
 
     }
 
@@ -77,7 +174,17 @@ public class Scene {
     public void handleRightClick(PVector position) {
 
         // Delegate right click handling to current state.
-        mState = mState.handleRightClick(position);
+        record(InputRecording.RIGHT_CLICK, position.x, position.y);
+        setState(mState.handleRightClick(position));
+
+    }
+
+    /// Handle mouse moved.
+    /// \param position coordinates of mouse.
+    public void handleMouseMove(PVector position) {
+
+        // Keep crosshair at the mouse position.
+        mContext.crosshair.setTranslation(position);
 
     }
 
@@ -85,7 +192,44 @@ public class Scene {
     public void handleSpace() {
 
         // Delegate space pressed handling to current state.
-        mState = mState.handleSpace();
+        record(InputRecording.SPACE, 0f, 0f);
+        setState(mState.handleSpace());
+
+    }
+
+    /// Move to the next state, logging moves between different kinds of state.
+    /// \param next the state to move to.
+    private void setState(SceneState next) {
+
+        if (next.getClass() != mState.getClass()) {
+
+            StateTransitionEvent event = new StateTransitionEvent();
+            if (event.shouldCommit()) {
+
+                event.from = mState.getClass().getSimpleName();
+                event.to = next.getClass().getSimpleName();
+                event.wave = mContext.wave;
+                event.score = mContext.score;
+                event.commit();
+
+            }
+
+        }
+        mState = next;
+
+    }
+
+    /// Log input with the current step if input is being recorded.
+    /// \param type the kind of input.
+    /// \param x x coordinate of a click.
+    /// \param y y coordinate of a click.
+    private void record(byte type, float x, float y) {
+
+        if (mRecording != null) {
+
+            mRecording.add(mStep, type, x, y);
+
+        }
 
     }
 
@@ -104,6 +248,12 @@ public class Scene {
         mContext.fManager.addForce(new BasicGravity(gravityAcceleration));
         mContext.fManager.addForce(new Drag(k1, k2));
 
+        // Opening angle and number of black holes at which their gravity is
+        // approximated with a field instead of applied individually.
+        float holeTheta = 0.5f;
+        int fieldHoles = 64;
+        mContext.fManager.setHoleField(holeTheta, fieldHoles);
+
     }
 
     /// Initialise cross hair.
@@ -115,21 +265,37 @@ public class Scene {
 
     }
 
+    /// Initialise status text, which is kept across states so that its cached
+    /// rendering is reused.
+    private void initStatus() {
+
+        int textSize = 25;
+        boolean centred = false;
+        mContext.waveStatus = new TextObject(textSize, centred);
+        mContext.waveStatus.setCached(true);
+        mContext.missileStatus = new TextObject(textSize, centred);
+        mContext.missileStatus.translate(800f, 0f);
+        mContext.missileStatus.setCached(true);
+
+    }
+
     /// Initialise city manager.
     /// \param tManager source of textures to use.
-    public void initCManager(TextureManager tManager) {
+    /// \param random random numbers for restoring cities.
+    public void initCManager(TextureManager tManager, Randomiser random) {
 
         // Texture to use for cities and time for city destruction animation to last.
         Texture texture = tManager.getTexture("city");
         float destructionDuration = 0.5f;
 
-        mContext.cManager = new CityManager(texture, destructionDuration);
+        mContext.cManager = new CityManager(texture, destructionDuration, random);
     
     }
 
     /// Initialise particle manager.
     /// \param tManager source of textures to use.
-    private void initPManager(TextureManager tManager) {
+    /// \param random random numbers for spawning particles.
+    private void initPManager(TextureManager tManager, Randomiser random) {
 
         // Texture to use for particles.
         Texture texture = tManager.getTexture("particle");
@@ -162,31 +328,58 @@ public class Scene {
         // Target area to fire particles towards.
         Rect target = new Rect(0f, 600f, 1000f, 350f);
 
-        // When generating particles, use random initial velocity pointing from
+        // Size of grid cells used for finding particles near a point, and whether to
+        // sweep over particles sorted along the x axis instead of using a grid.
+        float cellSize = 100f;
+        boolean sweep = false;
+
+        // Threads to update particles with and the most particles one thread 
+        // updates at a time. Waves smaller than the chunk size update on one thread.
+        int updateThreads = Runtime.getRuntime().availableProcessors();
+        int chunkSize = 4096;
+
+        // Particles to allocate space for initially.
+        int capacity = 256;
+
+        // Store holding active particles.
+        ParticleStore particles = new ParticleStore(texture, explodeDuration, capacity);
+
+        // When spawning particles, use random initial velocity pointing from
         // random point in spawn area to random point in target area.
-        Supplier<Particle> particleFactory = 
-            () -> {
-                float size = Randomiser.randomFloat(0f, 1f);
+        // Components are generated directly so that spawning does not allocate.
+        Consumer<ParticleStore> particleSpawner = 
+            (store) -> {
+                float size = random.randomFloat(0f, 1f);
                 float mass = baseMass + (size * extraMass);
                 float scale = baseScale + (size * extraScale);
-                float speed = Randomiser.randomFloat(minSpeed, maxSpeed);
-                PVector start = Randomiser.randomPoint(spawn);
-                PVector end = Randomiser.randomPoint(target);
-                PVector velocity = end.sub(start);
-                velocity.setMag(speed);
-                Particle particle = new Particle(texture, mass, velocity, explodeDuration);
-                particle.translate(start);
-                particle.scale(scale, scale);
-                return particle;
+                float speed = random.randomFloat(minSpeed, maxSpeed);
+                float startX = random.randomFloat(spawn.x, spawn.x + spawn.width);
+                float startY = random.randomFloat(spawn.y, spawn.y + spawn.height);
+                float endX = random.randomFloat(target.x, target.x + target.width);
+                float endY = random.randomFloat(target.y, target.y + target.height);
+                float distanceX = endX - startX;
+                float distanceY = endY - startY;
+                float distance = (float)Math.sqrt(distanceX * distanceX + distanceY * distanceY);
+                store.add(startX, 
+                          startY, 
+                          distanceX * speed / distance, 
+                          distanceY * speed / distance, 
+                          mass, 
+                          scale);
             };
 
-        // Initialise manager with particle factory and spawning properties..
-        mContext.pManager = new ParticleManager(particleFactory,
+        // Initialise manager with particle spawner and spawning properties..
+        mContext.pManager = new ParticleManager(particles,
+                                                particleSpawner,
                                                 baseCount,
                                                 baseInterval,
                                                 countMultiplier,
                                                 intervalMultiplier,
-                                                bounds);
+                                                bounds,
+                                                cellSize);
+        mContext.pManager.setParallel(updateThreads, chunkSize);
+        mContext.pManager.setSweep(sweep);
+        mContext.pManager.setProfiler(mContext.profiler);
 
     }
 
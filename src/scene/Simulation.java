@@ -0,0 +1,266 @@
+package scene;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import profile.Profiler;
+import render.Snapshot;
+import render.SnapshotBuffer;
+import replay.InputReplay;
+
+/// Advances a scene with a fixed timestep and publishes snapshots of it for rendering.
+/// The simulation can either be advanced by the caller every frame or run on its own
+/// thread, in which case input is queued and handled on the simulation thread.
+/// The number of updates per advance is limited so that falling behind cannot make
+/// each advance slower than the last. Optionally, game time can be slowed down when
+/// updates take too much of real time to keep up.
+public class Simulation implements Runnable {
+
+    /// The scene being simulated.
+    private final Scene mScene;
+
+    /// The fixed update timestep used.
+    private final float mStepSize;
+
+    /// Snapshots of the scene for rendering.
+    private final SnapshotBuffer mSnapshots;
+
+    /// Input waiting to be handled before the next update.
+    private final ConcurrentLinkedQueue<Consumer<Scene>> mInput;
+
+    /// Accumulated time not yet simulated.
+    private float mAccumulator;
+
+    /// Most updates carried out in a single advance.
+    private int mMaxSteps;
+
+    /// Total time that was dropped instead of simulated because of the update limit.
+    private float mDroppedTime;
+
+    /// Average real time taken by a single update in seconds.
+    private float mUpdateCost;
+
+    /// Fraction of real time that updates may use before game time is slowed down.
+    /// Adaptive slowing is disabled if 0 or less.
+    private float mBudget;
+
+    /// Slowest that game time can run relative to real time when adapting.
+    private float mMinTimeScale;
+
+    /// Current speed of game time relative to real time.
+    private float mTimeScale;
+
+    /// Recorded input replayed before each update, null if not replaying.
+    private InputReplay mReplay;
+
+    /// Thread running the simulation, null if advanced by the caller.
+    private Thread mThread;
+
+    /// Whether the simulation thread should keep running.
+    private volatile boolean mRunning;
+
+    /// Initialise scene and timestep.
+    /// \param scene the scene to simulate.
+    /// \param stepSize the fixed timestep to update the scene with.
+    public Simulation(Scene scene, float stepSize) {
+
+        mScene = scene;
+        mStepSize = stepSize;
+        mSnapshots = new SnapshotBuffer();
+        mInput = new ConcurrentLinkedQueue<Consumer<Scene>>();
+        mAccumulator = 0f;
+        mMaxSteps = 10;
+        mDroppedTime = 0f;
+        mUpdateCost = 0f;
+        mBudget = 0f;
+        mMinTimeScale = 1f;
+        mTimeScale = 1f;
+        mReplay = null;
+        mThread = null;
+        mRunning = false;
+
+    }
+
+    /// Set the most updates that can be carried out in a single advance. Any time
+    /// left over beyond that is dropped.
+    /// \param maxSteps the most updates per advance.
+    public void setMaxSteps(int maxSteps) {
+
+        mMaxSteps = Math.max(maxSteps, 1);
+
+    }
+
+    /// Slow down game time when updates take more than a fraction of real time.
+    /// The timestep stays fixed so updates remain deterministic.
+    /// \param budget fraction of real time updates may use, 0 or less disables slowing.
+    /// \param minTimeScale slowest that game time can run relative to real time.
+    public void setAdaptive(float budget, float minTimeScale) {
+
+        mBudget = budget;
+        mMinTimeScale = Math.min(Math.max(minTimeScale, 0f), 1f);
+        mTimeScale = 1f;
+
+    }
+
+    /// Replay recorded input into the scene before each update.
+    /// \param replay the replay to feed the scene from.
+    public void setReplay(InputReplay replay) {
+
+        mReplay = replay;
+
+    }
+
+    /// Queue input to be handled by the scene before its next update.
+    /// \param input the input handler to apply to the scene.
+    public void post(Consumer<Scene> input) {
+
+        mInput.add(input);
+
+    }
+
+    /// Handle queued input then update the scene with as many fixed steps as fit in
+    /// the accumulated time. Publishes a new snapshot if anything changed.
+    /// \param frameTime time passed since the last advance.
+    public void advance(float frameTime) {
+
+        boolean changed = false;
+
+        // Handle input in the order it was received.
+        Consumer<Scene> input = mInput.poll();
+        while (input != null) {
+
+            input.accept(mScene);
+            changed = true;
+            input = mInput.poll();
+
+        }
+
+        // While there is still enough time left in accumulator update the
+        // game with the fixed timestep, up to the update limit.
+        mAccumulator += frameTime * mTimeScale;
+        int steps = 0;
+        while (mAccumulator > mStepSize && steps < mMaxSteps) {
+
+            if (mReplay != null) {
+
+                mReplay.apply(mScene);
+
+            }
+            long start = System.nanoTime();
+            mScene.update(mStepSize);
+            mAccumulator -= mStepSize;
+            changed = true;
+            ++steps;
+
+            // Keep a moving average of update cost.
+            float cost = (System.nanoTime() - start) / 1e9f;
+            mUpdateCost += (cost - mUpdateCost) * 0.1f;
+
+        }
+
+        // Drop whole steps that could not be simulated, keeping the fraction of a
+        // step for interpolation.
+        if (mAccumulator > mStepSize) {
+
+            float dropped = mAccumulator - (mAccumulator % mStepSize);
+            mAccumulator -= dropped;
+            mDroppedTime += dropped;
+
+        }
+
+        // Slow down game time so updates fit in the budget, recovering once they do.
+        if (mBudget > 0f && mUpdateCost > 0f) {
+
+            float scale = (mBudget * mStepSize) / mUpdateCost;
+            mTimeScale = Math.min(Math.max(scale, mMinTimeScale), 1f);
+
+        }
+
+        // Report dropped time and time scale alongside the scene's timings.
+        Profiler profiler = mScene.getProfiler();
+        if (profiler.isEnabled()) {
+
+            profiler.setClock(mDroppedTime, mTimeScale);
+
+        }
+
+        // Record and publish the new state of the scene.
+        if (changed) {
+
+            Snapshot snapshot = mSnapshots.getRecording();
+            snapshot.clear();
+            mScene.render(snapshot);
+            snapshot.setTiming(mAccumulator, mStepSize);
+            mSnapshots.publish();
+
+        }
+
+    }
+
+    /// Get the latest snapshot of the scene. The snapshot remains valid until the
+    /// next call, so this should only be called from the rendering thread.
+    /// \return the latest published snapshot.
+    public Snapshot getSnapshot() {
+
+        return mSnapshots.acquire();
+
+    }
+
+    /// Start running the simulation on its own thread.
+    public void start() {
+
+        if (mThread == null) {
+
+            mRunning = true;
+            mThread = new Thread(this, "Simulation");
+            mThread.setDaemon(true);
+            mThread.start();
+
+        }
+
+    }
+
+    /// Stop the simulation thread and wait for it to finish.
+    public void stop() {
+
+        if (mThread != null) {
+
+            mRunning = false;
+            try {
+
+                mThread.join();
+
+            } catch (InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+
+            }
+            mThread = null;
+
+        }
+
+    }
+
+    /// Advance the simulation in real time until stopped.
+    public void run() {
+
+        long previous = System.nanoTime();
+        while (mRunning) {
+
+            long current = System.nanoTime();
+            advance((current - previous) / 1e9f);
+            previous = current;
+
+            // Wait until the next step is due.
+            float remaining = mStepSize - mAccumulator;
+            if (remaining > 0f) {
+
+                LockSupport.parkNanos((long)(remaining * 1e9f));
+
+            }
+
+        }
+
+    }
+
+}
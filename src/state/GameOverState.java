@@ -1,10 +1,10 @@
 package state;
 
-import processing.core.PApplet;
 import processing.core.PConstants;
 import processing.core.PVector;
 import scene.Context;
 import gameobject.TextObject;
+import render.Snapshot;
 
 /// State managing game over screen.
 public class GameOverState extends SceneState {
@@ -37,13 +37,13 @@ public class GameOverState extends SceneState {
     }
 
     /// Render scene and game over text.
-    /// \param core Processing core to use for rendering.
-    public void render(PApplet core) { 
+    /// \param snapshot snapshot to record rendering into.
+    public void render(Snapshot snapshot) { 
 
-        super.render(core);
-        mStatus.render(core);
-        mScore.render(core);
-        mRestart.render(core);
+        super.render(snapshot);
+        mStatus.render(snapshot);
+        mScore.render(snapshot);
+        mRestart.render(snapshot);
 
     }
 
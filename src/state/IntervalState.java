@@ -1,12 +1,12 @@
 package state;
 
-import processing.core.PApplet;
 import processing.core.PConstants;
 import processing.core.PVector;
 import scene.Context;
 import gameobject.TextObject;
 import phase.IntervalPhase;
 import phase.MissileRemainPhase;
+import render.Snapshot;
 
 /// State managing interval between waves where scores are counted and bonuses
 /// are applied.
@@ -64,13 +64,13 @@ public class IntervalState extends StatusState {
     }
 
     /// Render wave end text and bonus text.
-    /// \param core Processing core to use for rendering.
-    public void render(PApplet core) { 
+    /// \param snapshot snapshot to record rendering into.
+    public void render(Snapshot snapshot) { 
 
-        super.render(core);
+        super.render(snapshot);
 
-        mWave.render(core);
-        mBonus.render(core);
+        mWave.render(snapshot);
+        mBonus.render(snapshot);
 
     }
 
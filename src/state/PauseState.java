@@ -1,9 +1,9 @@
 package state;
 
-import processing.core.PApplet;
 import processing.core.PConstants;
 import scene.Context;
 import gameobject.TextObject;
+import render.Snapshot;
 
 public class PauseState extends StatusState {
 
@@ -34,10 +34,10 @@ public class PauseState extends StatusState {
     
     }
 
-    public void render(PApplet core) {
+    public void render(Snapshot snapshot) {
 
-        super.render(core);
-        mText.render(core);
+        super.render(snapshot);
+        mText.render(snapshot);
 
     }
 
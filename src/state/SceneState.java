@@ -1,9 +1,11 @@
 package state;
 
-import processing.core.PApplet;
 import processing.core.PConstants;
 import processing.core.PVector;
+import scene.CollisionEvents;
 import scene.Context;
+import render.Snapshot;
+import profile.Profiler;
 
 /// Abstract class representing a state that the game is in.
 /// Handles updating, rendering and input handling for the game while
@@ -20,25 +22,47 @@ public abstract class SceneState {
 
     }
 
-    /// Update the game. Updates each object manager in the context.
+    /// Update the game. Updates each object manager in the context, then finds the
+    /// step's collisions and lets the managers respond to them.
     /// \param delta time since last update.
     /// \return the next state to transition to (Stays in this state).
     public SceneState update(float delta) {
         
+        Profiler profiler = mContext.profiler;
+        long start = profiler.start();
         mContext.pManager.update(delta, mContext.fManager);
-        mContext.mManager.update(delta, mContext.pManager);
-        mContext.cManager.update(delta, mContext.pManager);
+        profiler.stop(Profiler.PARTICLES, start);
+
+        start = profiler.start();
+        mContext.mManager.update(delta);
+        profiler.stop(Profiler.MISSILES, start);
+
+        start = profiler.start();
+        mContext.cManager.update(delta);
+        profiler.stop(Profiler.CITIES, start);
+
+        // Find all collisions once the objects have moved. Particles destroyed by a
+        // collision are exploded as they are found, so they are not found again.
+        start = profiler.start();
+        CollisionEvents events = mContext.collisions;
+        events.begin();
+        mContext.pManager.findOutOfBounds(events);
+        mContext.mManager.findCollisions(mContext.pManager, events);
+        mContext.cManager.findCollisions(mContext.pManager, events);
+        mContext.mManager.handleCollisions(events);
+        mContext.cManager.handleCollisions(events);
+        profiler.stop(Profiler.COLLISIONS, start);
         return this;
         
     }
 
     /// Renders the scene.
-    /// \param core Processing core to use for rendering the scene.
-    public void render(PApplet core) { 
+    /// \param snapshot snapshot to record rendering into..
+    public void render(Snapshot snapshot) { 
 
-        mContext.cManager.render(core);
-        mContext.mManager.render(core);
-        mContext.pManager.render(core);
+        mContext.cManager.render(snapshot);
+        mContext.mManager.render(snapshot);
+        mContext.pManager.render(snapshot);
 
     }
 
@@ -1,10 +1,10 @@
 package state;
 
-import processing.core.PApplet;
 import processing.core.PConstants;
 import processing.core.PVector;
 import scene.Context;
 import gameobject.TextObject;
+import render.Snapshot;
 
 /// State to start game with.
 public class StartState extends SceneState {
@@ -26,11 +26,11 @@ public class StartState extends SceneState {
     }
 
     /// Render scene and text.
-    /// \param core Processing core to render game with.
-    public void render(PApplet core) { 
+    /// \param snapshot snapshot to record rendering into.
+    public void render(Snapshot snapshot) { 
 
-        super.render(core);
-        mText.render(core);
+        super.render(snapshot);
+        mText.render(snapshot);
 
     }
 
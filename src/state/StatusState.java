@@ -1,10 +1,10 @@
 package state;
 
-import processing.core.PApplet;
 import processing.core.PConstants;
 import processing.core.PVector;
 import scene.Context;
 import gameobject.TextObject;
+import render.Snapshot;
 
 /// State displaying current wave/score status in addition to the standard game scene.
 public class StatusState extends SceneState {
@@ -15,15 +15,27 @@ public class StatusState extends SceneState {
     /// Text displaying available missiles and black holes.
     private final TextObject mMissileStatus;
 
-    /// Initialise status text.
+    /// Values shown by the status text, so it is only rebuilt when they change.
+    private int mWave;
+    private int mScore;
+    private int mMissiles;
+    private int mHoles;
+
+    /// Text displaying profiler timings when profiling.
+    private final TextObject mProfile;
+
+    /// Initialise status text, shared by every status state.
     public StatusState(Context context) {
 
         super(context);
-        int textSize = 25;
-        boolean centred = false;
-        mWaveStatus = new TextObject(textSize, centred);
-        mMissileStatus = new TextObject(textSize, centred);
-        mMissileStatus.translate(800f, 0f);
+        mWaveStatus = context.waveStatus;
+        mMissileStatus = context.missileStatus;
+        mProfile = new TextObject(15, false);
+        mProfile.translate(0f, 70f);
+        mWave = -1;
+        mScore = -1;
+        mMissiles = -1;
+        mHoles = -1;
         updateStatus();
 
     }
@@ -40,21 +52,43 @@ public class StatusState extends SceneState {
     }
 
     /// Render game and status text.
-    /// \param core Processing core to use for rendering.
-    public void render(PApplet core) {
+    /// \param snapshot snapshot to record rendering into.
+    public void render(Snapshot snapshot) {
+
+        super.render(snapshot);
+        mWaveStatus.render(snapshot);
+        mMissileStatus.render(snapshot);
+
+        // Show timings below status text while profiling.
+        if (mContext.profiler.isEnabled()) {
+
+            mProfile.setText(mContext.profiler.summary());
+            mProfile.render(snapshot);
 
-        super.render(core);
-        mWaveStatus.render(core);
-        mMissileStatus.render(core);
+        }
 
     }
 
-    /// Update status text.
+    /// Update status text if the values it shows have changed.
     private void updateStatus() {
 
-        mWaveStatus.setText("Wave " + mContext.wave + "\nScore: " + mContext.score);
-        mMissileStatus.setText("Missiles: " + mContext.mManager.getMissileCount() +
-                               "\nBlack Holes: " + mContext.mManager.getHoleCount());
+        if (mWave != mContext.wave || mScore != mContext.score) {
+
+            mWave = mContext.wave;
+            mScore = mContext.score;
+            mWaveStatus.setText("Wave " + mWave + "\nScore: " + mScore);
+
+        }
+
+        int missiles = mContext.mManager.getMissileCount();
+        int holes = mContext.mManager.getHoleCount();
+        if (mMissiles != missiles || mHoles != holes) {
+
+            mMissiles = missiles;
+            mHoles = holes;
+            mMissileStatus.setText("Missiles: " + mMissiles + "\nBlack Holes: " + mHoles);
+
+        }
 
     }
 
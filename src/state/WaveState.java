@@ -1,9 +1,10 @@
 package state;
 
-import processing.core.PApplet;
 import processing.core.PConstants;
 import processing.core.PVector;
+import scene.CollisionEvents;
 import scene.Context;
+import render.Snapshot;
 
 /// State representing a wave where the player must repel particles.
 public class WaveState extends StatusState {
@@ -24,8 +25,12 @@ public class WaveState extends StatusState {
 
         super.update(delta);
 
+        // Score particles destroyed by black holes or pushed out of bounds.
+        CollisionEvents events = mContext.collisions;
+        mContext.score += events.count(CollisionEvents.PARTICLE_HOLE) + 
+                          events.count(CollisionEvents.OUT_OF_BOUNDS);
+
         // Go to game over state if all cities are destroyed.
-        mContext.score += mContext.pManager.getPlayerDestroyed();
         if (mContext.cManager.isDestroyed()) {
 
             mContext.mManager.destroyTurret(); 
@@ -45,13 +50,11 @@ public class WaveState extends StatusState {
     }
 
     /// Render game with crosshair for aiming.
-    /// \param core Processing core to use for rendering.
-    public void render(PApplet core) {
-
-        super.render(core);
+    /// \param snapshot snapshot to record rendering into.
+    public void render(Snapshot snapshot) {
 
-        mContext.crosshair.setTranslation(core.mouseX, core.mouseY);
-        mContext.crosshair.render(core);
+        super.render(snapshot);
+        mContext.crosshair.render(snapshot);
 
     }
 
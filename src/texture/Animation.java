@@ -62,6 +62,29 @@ public class Animation {
 
     }
 
+    /// Get the clip in the animation at a specified time without changing its progress.
+    /// \param time the time passed in the animation.
+    /// \return the index of the clip at that time.
+    public int getClip(float time) {
+
+        /// If the time is past the duration return the last clip.
+        if (time >= mDuration) {
+
+            return mEndClip;
+
+        }
+        return (int)((mClips / mDuration) * time) + mStartClip;
+
+    }
+
+    /// Get the duration of the animation.
+    /// \return the duration of the animation in seconds.
+    public float getDuration() {
+
+        return mDuration;
+
+    }
+
     /// Reset the animation to the start.
     public void reset() {
         
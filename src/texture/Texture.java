@@ -1,6 +1,7 @@
 package texture;
 
 import processing.core.PApplet;
+import processing.core.PGraphics;
 import processing.core.PImage;
 import java.lang.RuntimeException;
 import java.io.IOException;
@@ -11,12 +12,16 @@ import rect.Rect;
 /// Class encapsulating an image with clips to render different areas of the image.
 public class Texture {
 
-    /// Image to use for rendering.
+    /// Image to use for rendering, null if the texture is never rendered.
     private final PImage mImage;
 
     /// Clips that can be used to render different areas of the image.
     private ArrayList<Rect> mClips;
 
+    /// Area of the image cropped by each clip, sliced once so that rendering a clip
+    /// does not need to draw the entire image through a clipping region.
+    private ArrayList<PImage> mClipImages;
+
     /// Initialise with path to load image from.
     /// \param core Processing core to use for loading image.
     /// \param path Image file path.
@@ -30,9 +35,64 @@ public class Texture {
 
         }
         mClips = new ArrayList<Rect>();
+        mClipImages = new ArrayList<PImage>();
+
+        // Add default clip for entire image.
+        mClips.add(new Rect(0f, 0f, mImage.width, mImage.height));
+        mClipImages.add(mImage);
+
+    }
+
+    /// Initialise with an image that has already been loaded.
+    /// \param image the image to use for rendering.
+    public Texture(PImage image) {
+
+        mImage = image;
+        mClips = new ArrayList<Rect>();
+        mClipImages = new ArrayList<PImage>();
 
         // Add default clip for entire image.
         mClips.add(new Rect(0f, 0f, mImage.width, mImage.height));
+        mClipImages.add(mImage);
+
+    }
+
+    /// Initialise without an image so that clips can be used without rendering.
+    /// \param width width of the entire texture.
+    /// \param height height of the entire texture.
+    public Texture(float width, float height) {
+
+        mImage = null;
+        mClips = new ArrayList<Rect>();
+        mClipImages = new ArrayList<PImage>();
+
+        // Add default clip for entire texture.
+        mClips.add(new Rect(0f, 0f, width, height));
+        mClipImages.add(null);
+
+    }
+
+    /// Initialise with an area of an atlas image that a texture's image was copied to.
+    /// The source texture's clips are offset to where its image is in the atlas.
+    /// \param atlas the atlas image containing the source texture's image.
+    /// \param source the texture whose image was copied into the atlas.
+    /// \param x x coordinate of the source texture's image in the atlas.
+    /// \param y y coordinate of the source texture's image in the atlas.
+    public Texture(PImage atlas, Texture source, int x, int y) {
+
+        mImage = atlas;
+        mClips = new ArrayList<Rect>();
+        mClipImages = new ArrayList<PImage>();
+
+        // Offset clips into the atlas, reusing the source's sliced clip images
+        // since their pixels are unchanged.
+        for (int i = 0; i < source.getClipCount(); ++i) {
+
+            Rect clip = source.mClips.get(i);
+            mClips.add(new Rect(clip.x + x, clip.y + y, clip.width, clip.height));
+            mClipImages.add(source.getClipImage(i));
+
+        }
 
     }
 
@@ -44,6 +104,41 @@ public class Texture {
 
     }
 
+    /// Get the image used for rendering.
+    /// \return the entire image of the texture.
+    public PImage getImage() {
+
+        return mImage;
+
+    }
+
+    /// Get the area of the image cropped by a clip.
+    /// \param clipIndex the index of the clip to get the image of.
+    /// \return the image of the clip.
+    public PImage getClipImage(int clipIndex) {
+
+        return mClipImages.get(clipIndex);
+
+    }
+
+    /// Get the x coordinate of a texture clip's top left corner in the image.
+    /// \param clipIndex the index of the clip to get the x coordinate of.
+    /// \return the x coordinate of the clip.
+    public float getX(int clipIndex) {
+
+        return mClips.get(clipIndex).x;
+
+    }
+
+    /// Get the y coordinate of a texture clip's top left corner in the image.
+    /// \param clipIndex the index of the clip to get the y coordinate of.
+    /// \return the y coordinate of the clip.
+    public float getY(int clipIndex) {
+
+        return mClips.get(clipIndex).y;
+
+    }
+
     /// Get the width of a texture clip.
     /// \param clipIndex the index of the clip to get the width of.
     /// \return the width of the clip.
@@ -67,30 +162,36 @@ public class Texture {
     public void addClip(Rect clip) {
 
         mClips.add(clip.copy());
+        if (mImage != null) {
+
+            mClipImages.add(mImage.get(Math.round(clip.x), 
+                                       Math.round(clip.y), 
+                                       Math.round(clip.width), 
+                                       Math.round(clip.height)));
+
+        } else {
+
+            mClipImages.add(null);
+
+        }
 
     }
 
     /// Render the entire image using the default clip.
-    /// \param Processing core to use to render the image.
-    public void render(PApplet core) {
+    /// \param g graphics to render the image with.
+    public void render(PGraphics g) {
 
-        render(core, 0);
+        render(g, 0);
 
     }
 
     /// Render the image cropped by a clip.
-    /// \param core Processing core to use to render the image.
+    /// \param g graphics to render the image with.
     /// \param clipIndex the index of the clip to crop the image with.
-    public void render(PApplet core, int clipIndex) {
+    public void render(PGraphics g, int clipIndex) {
         
-        // clip image then render, this includes translating so that clip is centred
-        // at current transformation.
-        Rect clip = mClips.get(clipIndex);
-        core.translate(-clip.x, -clip.y);
-        core.clip(clip.x, clip.y, clip.width, clip.height);
-        core.image(mImage, 0, 0);
-        core.noClip();
-        core.translate(clip.x, clip.y);
+        // Render the area of the image sliced for the clip.
+        g.image(mClipImages.get(clipIndex), 0, 0);
 
     }
 
@@ -0,0 +1,140 @@
+package texture;
+
+import java.util.ArrayList;
+import processing.core.PConstants;
+import processing.core.PImage;
+
+/// Packs the images of several textures into a single power of two atlas image.
+/// Images are placed left to right on shelves as tall as the first image on them,
+/// so images should be added tallest first to waste the least space.
+public class TextureAtlas {
+
+    /// Largest width and height of the atlas image.
+    private final int mMaxSize;
+
+    /// Empty pixels left around each image so that filtering does not blend in
+    /// neighbouring images.
+    private final int mPadding;
+
+    /// Textures added to the atlas, in the order they were added.
+    private final ArrayList<Texture> mTextures;
+
+    /// Position of each added texture's image in the atlas.
+    private final ArrayList<int[]> mPositions;
+
+    /// Position for the next image on the current shelf.
+    private int mX;
+    private int mY;
+
+    /// Height of the current shelf.
+    private int mShelfHeight;
+
+    /// Width and height of the area used by images so far.
+    private int mWidth;
+    private int mHeight;
+
+    /// Initialise an empty atlas.
+    /// \param maxSize the largest width and height of the atlas image.
+    /// \param padding the empty pixels left between images.
+    public TextureAtlas(int maxSize, int padding) {
+
+        mMaxSize = maxSize;
+        mPadding = padding;
+        mTextures = new ArrayList<Texture>();
+        mPositions = new ArrayList<int[]>();
+        mX = 0;
+        mY = 0;
+        mShelfHeight = 0;
+        mWidth = 0;
+        mHeight = 0;
+
+    }
+
+    /// Check whether any textures have been added to the atlas.
+    /// \return whether the atlas is empty.
+    public boolean isEmpty() {
+
+        return mTextures.isEmpty();
+
+    }
+
+    /// Find space for a texture's image in the atlas.
+    /// \param texture the texture to add, which must have an image.
+    /// \return whether there was space for the texture's image.
+    public boolean add(Texture texture) {
+
+        PImage image = texture.getImage();
+        int width = image.width + mPadding;
+        int height = image.height + mPadding;
+
+        // Start a new shelf below the current one if the image does not fit beside it.
+        if (mX + width > mMaxSize) {
+
+            mX = 0;
+            mY += mShelfHeight;
+            mShelfHeight = 0;
+
+        }
+        if ((mX + width > mMaxSize) || (mY + height > mMaxSize)) {
+
+            return false;
+
+        }
+
+        mTextures.add(texture);
+        mPositions.add(new int[] {mX, mY});
+        mX += width;
+        mShelfHeight = Math.max(mShelfHeight, height);
+        mWidth = Math.max(mWidth, mX);
+        mHeight = Math.max(mHeight, mY + mShelfHeight);
+        return true;
+
+    }
+
+    /// Copy every added texture's image into a new atlas image.
+    /// \return textures using the atlas image, in the order they were added.
+    public ArrayList<Texture> build() {
+
+        PImage atlas = new PImage(powerOfTwo(mWidth), powerOfTwo(mHeight), PConstants.ARGB);
+        atlas.loadPixels();
+
+        ArrayList<Texture> textures = new ArrayList<Texture>();
+        for (int i = 0; i < mTextures.size(); ++i) {
+
+            Texture texture = mTextures.get(i);
+            int[] position = mPositions.get(i);
+
+            // Copy the image a row at a time into its position.
+            PImage image = texture.getImage();
+            image.loadPixels();
+            for (int row = 0; row < image.height; ++row) {
+
+                System.arraycopy(image.pixels, row * image.width,
+                                 atlas.pixels, (position[1] + row) * atlas.width + position[0],
+                                 image.width);
+
+            }
+            textures.add(new Texture(atlas, texture, position[0], position[1]));
+
+        }
+        atlas.updatePixels();
+        return textures;
+
+    }
+
+    /// Get the smallest power of two at least as large as a size.
+    /// \param size the size to round up.
+    /// \return the rounded up size.
+    private static int powerOfTwo(int size) {
+
+        int power = 1;
+        while (power < size) {
+
+            power *= 2;
+
+        }
+        return power;
+
+    }
+
+}
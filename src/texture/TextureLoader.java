@@ -0,0 +1,16 @@
+package texture;
+
+import java.io.IOException;
+
+/// Creates textures from image files, allowing textures to be created without loading
+/// images when nothing will be rendered.
+public interface TextureLoader {
+
+    /// Create a texture for an image file.
+    /// \param path Image file path.
+    /// \param width width of the image in pixels.
+    /// \param height height of the image in pixels.
+    /// \return the created texture.
+    public Texture load(String path, int width, int height) throws IOException;
+
+}
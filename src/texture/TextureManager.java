@@ -2,26 +2,87 @@ package texture;
 
 import java.lang.RuntimeException;
 import java.lang.IllegalArgumentException;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.lang.String;
 
 /// Texture container that gives shared access to a store of textures.
+/// Textures can be loaded in the background, in which case getting a texture waits
+/// for only that texture to finish loading.
 public class TextureManager {
 
     /// Map of string container to texture.
     private HashMap<String, Texture> mTextures;
 
+    /// Textures still loading in the background by key.
+    private HashMap<String, Future<Texture>> mPending;
+
     /// Initialise texture map.
     public TextureManager() {
 
         mTextures = new HashMap<String, Texture>();
+        mPending = new HashMap<String, Future<Texture>>();
+
+    }
+
+    /// Load every texture in a manifest and store it using its key.
+    /// \param manifest the textures to load.
+    /// \param loader used to create each texture.
+    public void load(TextureManifest manifest, TextureLoader loader) throws IOException {
+
+        for (int i = 0; i < manifest.size(); ++i) {
+
+            TextureManifest.Entry entry = manifest.get(i);
+            addTexture(entry.getKey(), entry.load(loader));
+
+        }
+
+    }
+
+    /// Start loading every texture in a manifest on an executor. Each texture is 
+    /// stored using its key once loaded, and getting it before then waits for it.
+    /// \param manifest the textures to load.
+    /// \param loader used to create each texture, from several threads at once.
+    /// \param executor executor to load textures on.
+    public synchronized void loadAsync(TextureManifest manifest, 
+                                       TextureLoader loader, 
+                                       ExecutorService executor) throws RuntimeException {
+
+        for (int i = 0; i < manifest.size(); ++i) {
+
+            // Throw exception if key is already in use.
+            TextureManifest.Entry entry = manifest.get(i);
+            if (mTextures.containsKey(entry.getKey()) || mPending.containsKey(entry.getKey())) {
+
+                throw new RuntimeException("Key " + entry.getKey() + " is already in use in texture manager");
+
+            }
+            mPending.put(entry.getKey(), executor.submit(() -> entry.load(loader)));
+
+        }
+
+    }
+
+    /// Wait for every texture loading in the background to finish.
+    public synchronized void awaitAll() throws IOException {
+
+        ArrayList<String> keys = new ArrayList<String>(mPending.keySet());
+        for (String key : keys) {
+
+            resolve(key);
+
+        }
 
     }
 
     /// Add a new texture to the store using the specified key.
     /// \param key identifying key for the stored texture.
     /// \param texture the texture to store.
-    public void addTexture(String key, Texture texture) throws RuntimeException {
+    public synchronized void addTexture(String key, Texture texture) throws RuntimeException {
 
         // Throw exception if texture is invalid.
         if (texture == null) {
@@ -31,7 +92,7 @@ public class TextureManager {
         }
 
         // Throw exception if key is already in use.
-        if (mTextures.containsKey(key)) {
+        if (mTextures.containsKey(key) || mPending.containsKey(key)) {
 
             throw new RuntimeException("Key " + key + " is already in use in texture manager");
 
@@ -40,9 +101,105 @@ public class TextureManager {
 
     }
 
-    /// Get a texture using an identifying string.
+    /// Pack the images of every stored texture into as few power of two atlases as 
+    /// possible and replace each texture with one using its area of an atlas, so that
+    /// sprites with different textures can be drawn with the same image bound.
+    /// Waits for textures loading in the background first. Textures without images 
+    /// are left as they are.
+    /// \param maxSize the largest width and height of each atlas.
+    /// \param padding the empty pixels left between images in an atlas.
+    /// \return the number of atlases created.
+    public synchronized int packAtlases(int maxSize, int padding) throws IOException {
+
+        awaitAll();
+
+        // Add tallest images first so that shelves are filled with similar heights,
+        // breaking ties by key so that packing is always the same.
+        ArrayList<String> keys = new ArrayList<String>();
+        for (String key : mTextures.keySet()) {
+
+            if (mTextures.get(key).getImage() != null) {
+
+                keys.add(key);
+
+            }
+
+        }
+        keys.sort((a, b) -> {
+
+            int height = mTextures.get(b).getImage().height - mTextures.get(a).getImage().height;
+            return (height != 0) ? height : a.compareTo(b);
+
+        });
+
+        ArrayList<String> packed = new ArrayList<String>();
+        TextureAtlas atlas = new TextureAtlas(maxSize, padding);
+        int atlases = 0;
+        for (String key : keys) {
+
+            // Start a new atlas when the current one is full.
+            Texture texture = mTextures.get(key);
+            if (!atlas.add(texture)) {
+
+                replaceWithAtlas(atlas, packed);
+                ++atlases;
+
+                // Throw exception if the texture does not fit in an empty atlas.
+                atlas = new TextureAtlas(maxSize, padding);
+                if (!atlas.add(texture)) {
+
+                    throw new RuntimeException("Texture " + key + " is too large for an atlas");
+
+                }
+
+            }
+            packed.add(key);
+
+        }
+        if (!atlas.isEmpty()) {
+
+            replaceWithAtlas(atlas, packed);
+            ++atlases;
+
+        }
+        return atlases;
+
+    }
+
+    /// Build an atlas and replace the textures packed into it with atlas backed textures.
+    /// \param atlas the atlas to build.
+    /// \param keys keys of the textures packed into the atlas, in the order they were 
+    ///             added. Cleared once the textures are replaced.
+    private void replaceWithAtlas(TextureAtlas atlas, ArrayList<String> keys) {
+
+        ArrayList<Texture> textures = atlas.build();
+        for (int i = 0; i < keys.size(); ++i) {
+
+            mTextures.put(keys.get(i), textures.get(i));
+
+        }
+        keys.clear();
+
+    }
+
+    /// Get a texture using an identifying string, waiting for it if it is still loading.
     /// \param key the string identifier for the stored texture.
-    public Texture getTexture(String key) throws RuntimeException {
+    public synchronized Texture getTexture(String key) throws RuntimeException {
+
+        // Wait for the texture if it is still loading, throw exception if it failed.
+        if (mPending.containsKey(key)) {
+
+            try {
+
+                resolve(key);
+
+            } catch (IOException e) {
+
+                throw new RuntimeException("Could not load texture " + key, e);
+
+            }
+
+        }
 
         // Get texture, throw texture if no texture can be found for key.
         Texture texture = mTextures.get(key);
@@ -55,4 +212,32 @@ public class TextureManager {
 
     }
 
+    /// Wait for a texture loading in the background and store it once loaded.
+    /// \param key the key of the loading texture.
+    private void resolve(String key) throws IOException {
+
+        Future<Texture> pending = mPending.remove(key);
+        try {
+
+            mTextures.put(key, pending.get());
+
+        } catch (ExecutionException e) {
+
+            // Pass on the reason loading failed.
+            if (e.getCause() instanceof IOException) {
+
+                throw (IOException)e.getCause();
+
+            }
+            throw new RuntimeException("Could not load texture " + key, e.getCause());
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading texture " + key, e);
+
+        }
+
+    }
+
 }
@@ -0,0 +1,251 @@
+package texture;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import rect.Rect;
+
+/// List of textures to load, with the path, size and layout of clips in each image.
+/// Manifests are read from text files where each line is a command followed by its
+/// arguments, and lines starting with # are comments:
+///
+///     texture <key> <path> <width> <height>
+///     clip <x> <y> <width> <height>
+///     strip <first> <end> <width> <height>
+///
+/// Clips are added to the last texture. A strip adds clips of a set size side by
+/// side, from column first up to before column end.
+public class TextureManifest {
+
+    /// A texture in the manifest.
+    public static class Entry {
+
+        /// Key to store the texture with.
+        private final String mKey;
+
+        /// Image file path.
+        private final String mPath;
+
+        /// Width and height of the image in pixels.
+        private final int mWidth;
+        private final int mHeight;
+
+        /// Clips to add to the texture, in order after the default clip.
+        private final ArrayList<Rect> mClips;
+
+        /// Initialise texture properties without clips.
+        /// \param key key to store the texture with.
+        /// \param path image file path.
+        /// \param width width of the image in pixels.
+        /// \param height height of the image in pixels.
+        public Entry(String key, String path, int width, int height) {
+
+            mKey = key;
+            mPath = path;
+            mWidth = width;
+            mHeight = height;
+            mClips = new ArrayList<Rect>();
+
+        }
+
+        /// Get the key to store the texture with.
+        /// \return the texture's key.
+        public String getKey() {
+
+            return mKey;
+
+        }
+
+        /// Get the image file path.
+        /// \return the path of the texture's image.
+        public String getPath() {
+
+            return mPath;
+
+        }
+
+        /// Get the width of the image.
+        /// \return the width of the image in pixels.
+        public int getWidth() {
+
+            return mWidth;
+
+        }
+
+        /// Get the height of the image.
+        /// \return the height of the image in pixels.
+        public int getHeight() {
+
+            return mHeight;
+
+        }
+
+        /// Get the number of clips added after the default clip.
+        /// \return the number of clips.
+        public int getClipCount() {
+
+            return mClips.size();
+
+        }
+
+        /// Get a clip added after the default clip.
+        /// \param i the index of the clip, starting from 0 for the first added clip.
+        /// \return the clip.
+        public Rect getClip(int i) {
+
+            return mClips.get(i);
+
+        }
+
+        /// Add a clip to the texture.
+        /// \param clip the clip to add.
+        public void addClip(Rect clip) {
+
+            mClips.add(clip.copy());
+
+        }
+
+        /// Create the texture and add its clips. Only uses the entry and the loader
+        /// so different entries can be loaded concurrently.
+        /// \param loader used to create the texture.
+        /// \return the created texture.
+        public Texture load(TextureLoader loader) throws IOException {
+
+            Texture texture = loader.load(mPath, mWidth, mHeight);
+            for (int i = 0; i < mClips.size(); ++i) {
+
+                texture.addClip(mClips.get(i));
+
+            }
+            return texture;
+
+        }
+
+    }
+
+    /// Textures in the manifest, in the order they were listed.
+    private final ArrayList<Entry> mEntries;
+
+    /// Initialise empty manifest.
+    public TextureManifest() {
+
+        mEntries = new ArrayList<Entry>();
+
+    }
+
+    /// Get the number of textures in the manifest.
+    /// \return the number of textures.
+    public int size() {
+
+        return mEntries.size();
+
+    }
+
+    /// Get a texture in the manifest.
+    /// \param i the index of the texture.
+    /// \return the texture's entry.
+    public Entry get(int i) {
+
+        return mEntries.get(i);
+
+    }
+
+    /// Add a texture to the manifest.
+    /// \param entry the texture's entry.
+    public void add(Entry entry) {
+
+        mEntries.add(entry);
+
+    }
+
+    /// Read a manifest from a file.
+    /// \param path path of the file to read.
+    /// \return the manifest read from the file.
+    public static TextureManifest read(String path) throws IOException {
+
+        TextureManifest manifest = new TextureManifest();
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+
+            Entry entry = null;
+            int number = 1;
+            String line = reader.readLine();
+            while (line != null) {
+
+                // Skip blank lines and comments.
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+
+                    try {
+
+                        entry = readCommand(manifest, entry, line.split("\\s+"));
+
+                    } catch (IllegalArgumentException e) {
+
+                        throw new IOException("Invalid line " + number + " in " + path + ": " + line, e);
+
+                    }
+
+                }
+                line = reader.readLine();
+                ++number;
+
+            }
+
+        }
+        return manifest;
+
+    }
+
+    /// Carry out a single command from a manifest file.
+    /// \param manifest the manifest being read.
+    /// \param entry the last texture in the manifest, null if there is none yet.
+    /// \param words the command followed by its arguments.
+    /// \return the last texture in the manifest after the command.
+    private static Entry readCommand(TextureManifest manifest, Entry entry, String[] words) 
+    throws IllegalArgumentException {
+
+        // Throw exception if the command does not have the right number of arguments.
+        if (words.length != 5) {
+
+            throw new IllegalArgumentException("Expected 4 arguments");
+
+        }
+
+        if (words[0].equals("texture")) {
+
+            entry = new Entry(words[1], words[2], Integer.parseInt(words[3]), Integer.parseInt(words[4]));
+            manifest.add(entry);
+
+        } else if (entry == null) {
+
+            throw new IllegalArgumentException("Clips must follow a texture");
+
+        } else if (words[0].equals("clip")) {
+
+            entry.addClip(new Rect(Float.parseFloat(words[1]),
+                                   Float.parseFloat(words[2]),
+                                   Float.parseFloat(words[3]),
+                                   Float.parseFloat(words[4])));
+
+        } else if (words[0].equals("strip")) {
+
+            int end = Integer.parseInt(words[2]);
+            float width = Float.parseFloat(words[3]);
+            float height = Float.parseFloat(words[4]);
+            for (int i = Integer.parseInt(words[1]); i < end; ++i) {
+
+                entry.addClip(new Rect(i * width, 0f, width, height));
+
+            }
+
+        } else {
+
+            throw new IllegalArgumentException("Unknown command " + words[0]);
+
+        }
+        return entry;
+
+    }
+
+}
@@ -0,0 +1,144 @@
+package texture;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import processing.core.PConstants;
+import processing.core.PImage;
+import rect.Rect;
+
+/// Pre-baked file of decoded textures, holding raw ARGB pixels and the clips of each
+/// texture so that loading them needs no image decoding or manifest. Packs are
+/// memory mapped when read and pixels are copied straight from the mapping.
+///
+/// After the header each texture is stored as its key, image size, clips after the
+/// default clip, then its pixels aligned to 4 bytes, all big endian.
+public class TexturePack {
+
+    /// Identifies pack files and their format version.
+    private static final int MAGIC = 0x50435450;
+    private static final int VERSION = 1;
+
+    /// Write the textures listed in a manifest to a pack.
+    /// \param path path of the file to write.
+    /// \param manifest keys of the textures to write, in order.
+    /// \param tManager manager holding the loaded textures.
+    public static void write(String path, TextureManifest manifest, TextureManager tManager)
+    throws IOException {
+
+        try (DataOutputStream out = new DataOutputStream(
+             new BufferedOutputStream(new FileOutputStream(path)))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(manifest.size());
+            for (int i = 0; i < manifest.size(); ++i) {
+
+                String key = manifest.get(i).getKey();
+                Texture texture = tManager.getTexture(key);
+                PImage image = texture.getImage();
+                image.loadPixels();
+
+                // Write key and image size.
+                byte[] name = key.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(name.length);
+                out.write(name);
+                out.writeInt(image.width);
+                out.writeInt(image.height);
+
+                // Write clips, skipping the default clip every texture has.
+                out.writeInt(texture.getClipCount() - 1);
+                for (int c = 1; c < texture.getClipCount(); ++c) {
+
+                    out.writeFloat(texture.getX(c));
+                    out.writeFloat(texture.getY(c));
+                    out.writeFloat(texture.getWidth(c));
+                    out.writeFloat(texture.getHeight(c));
+
+                }
+
+                // Pad so that pixels are aligned for reading them as ints.
+                while (out.size() % 4 != 0) {
+
+                    out.writeByte(0);
+
+                }
+                for (int p = 0; p < image.pixels.length; ++p) {
+
+                    out.writeInt(image.pixels[p]);
+
+                }
+
+            }
+
+        }
+
+    }
+
+    /// Read every texture in a pack and store it in a texture manager.
+    /// \param path path of the pack to read.
+    /// \param tManager texture manager to store textures in.
+    public static void read(String path, TextureManager tManager) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+
+                throw new IOException(path + " is not a texture pack");
+
+            }
+
+            int count = buffer.getInt();
+            for (int i = 0; i < count; ++i) {
+
+                // Read key and create image of the stored size.
+                byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(name);
+                String key = new String(name, StandardCharsets.UTF_8);
+                PImage image = new PImage(buffer.getInt(), buffer.getInt(), PConstants.ARGB);
+
+                // Clips are read before pixels but added after so they can be sliced.
+                int clips = buffer.getInt();
+                float[] clipValues = new float[clips * 4];
+                for (int c = 0; c < clipValues.length; ++c) {
+
+                    clipValues[c] = buffer.getFloat();
+
+                }
+
+                // Copy pixels straight from the mapping.
+                buffer.position((buffer.position() + 3) & ~3);
+                buffer.asIntBuffer().get(image.pixels);
+                buffer.position(buffer.position() + image.pixels.length * 4);
+                image.updatePixels();
+
+                Texture texture = new Texture(image);
+                for (int c = 0; c < clips; ++c) {
+
+                    texture.addClip(new Rect(clipValues[c * 4],
+                                             clipValues[c * 4 + 1],
+                                             clipValues[c * 4 + 2],
+                                             clipValues[c * 4 + 3]));
+
+                }
+                tManager.addTexture(key, texture);
+
+            }
+
+        } catch (BufferUnderflowException e) {
+
+            throw new IOException(path + " is truncated", e);
+
+        }
+
+    }
+
+}